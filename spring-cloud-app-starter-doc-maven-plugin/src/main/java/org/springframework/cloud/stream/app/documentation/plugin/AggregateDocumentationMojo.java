@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * A variant of {@link ConfigurationMetadataDocumentationMojo} meant to be run once, at the root of a
+ * reactor, that documents all of its modules. Opened archives and enum hints are shared across modules
+ * and modules are processed in parallel, using at most {@link #threads} workers. Each module resolves its
+ * properties with its own metadata resolver. A failing module doesn't stop the others: all the failures are
+ * reported at once.
+ *
+ * <p>Modules must have been packaged in the same build (e.g. {@code mvn package
+ * spring-cloud-app-starter-doc:aggregate-documentation}), as modules without a build artifact are skipped.
+ * Additional formats are written to the {@code target/documentation} directory of each module.</p>
+ */
+@Mojo(name = "aggregate-documentation", aggregator = true, threadSafe = true,
+		requiresDependencyResolution = ResolutionScope.RUNTIME)
+public class AggregateDocumentationMojo extends ConfigurationMetadataDocumentationMojo {
+
+	@Parameter(defaultValue = "${reactorProjects}", readonly = true, required = true)
+	private List<MavenProject> reactorProjects;
+
+	/**
+	 * Maximum number of modules documented concurrently.
+	 */
+	@Parameter(property = "documentation.threads", defaultValue = "4")
+	private int threads;
+
+	@Override
+	public void execute() throws MojoExecutionException {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, reactorProjects.size())));
+		try (DocumentationCache cache = new DocumentationCache()) {
+			Map<MavenProject, Future<Integer>> results = new LinkedHashMap<>();
+			for (MavenProject project : reactorProjects) {
+				results.put(project, executor.submit(() -> document(project, cache)));
+			}
+
+			int modules = 0;
+			int properties = 0;
+			List<String> failures = new ArrayList<>();
+			for (Map.Entry<MavenProject, Future<Integer>> result : results.entrySet()) {
+				String module = result.getKey().getArtifactId();
+				try {
+					int documented = result.getValue().get();
+					if (documented >= 0) {
+						getLog().info(String.format("Documented %d configuration properties in %s", documented, module));
+						modules++;
+						properties += documented;
+					}
+				}
+				catch (ExecutionException e) {
+					getLog().error(String.format("Error documenting %s", module), e.getCause());
+					failures.add(module + ": " + e.getCause().getMessage());
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new MojoExecutionException("Interrupted while generating documentation", e);
+				}
+			}
+			if (!failures.isEmpty()) {
+				throw new MojoExecutionException(String.format("Error generating documentation for %d module(s):%n%s",
+						failures.size(), String.join(System.lineSeparator(), failures)));
+			}
+			getLog().info(String.format("Documented %d configuration properties in %d modules", properties, modules));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Override
+	File getOutputDirectory(MavenProject project) {
+		return new File(project.getBuild().getDirectory(), "documentation");
+	}
+}
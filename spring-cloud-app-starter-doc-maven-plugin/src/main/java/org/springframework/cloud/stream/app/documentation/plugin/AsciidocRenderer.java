@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Renders properties as an asciidoc definition list, one line per property. This is the format
+ * inserted between the markers of README.adoc.
+ */
+class AsciidocRenderer implements ConfigurationPropertiesRenderer {
+
+	@Override
+	public String getFileExtension() {
+		return "adoc";
+	}
+
+	@Override
+	public void render(List<DocumentedProperty> properties, Writer writer) throws IOException {
+		for (DocumentedProperty property : properties) {
+			writer.write(render(property));
+			writer.write('\n');
+		}
+	}
+
+	String render(DocumentedProperty property) {
+		return String.format("$$%s$$:: $$%s$$ *($$%s$$, default: `$$%s$$`%s)*",
+				property.getId(),
+				property.getDescription(),
+				property.getShortType(),
+				property.getDisplayDefaultValue(),
+				property.getPossibleValues().isEmpty() ? "" : ", possible values: `"
+						+ StringUtils.collectionToDelimitedString(property.getPossibleValues(), "`,`") + "`");
+	}
+
+}
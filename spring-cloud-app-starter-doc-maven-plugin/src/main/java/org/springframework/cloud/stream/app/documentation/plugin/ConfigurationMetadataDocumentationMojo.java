@@ -15,29 +15,27 @@
 
 package org.springframework.cloud.stream.app.documentation.plugin;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.jar.Manifest;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.DependencyResolutionRequiredException;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
@@ -45,18 +43,15 @@ import org.apache.maven.project.MavenProject;
 
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
 import org.springframework.boot.loader.archive.Archive;
-import org.springframework.boot.loader.archive.ExplodedArchive;
-import org.springframework.boot.loader.archive.JarFileArchive;
 import org.springframework.cloud.dataflow.configuration.metadata.BootApplicationConfigurationMetadataResolver;
 import org.springframework.cloud.dataflow.configuration.metadata.BootClassLoaderFactory;
-import org.springframework.cloud.dataflow.configuration.metadata.container.ContainerImageMetadataResolver;
 import org.springframework.util.ClassUtils;
-import org.springframework.util.StringUtils;
 
 /**
  * A maven plugin that will scan an asciidoc file for special comment markers and replace
  * everything in between with a listing of visible configuration properties for a
- * Spring Cloud Stream/Task app.
+ * Spring Cloud Stream/Task app. The same properties can additionally be written in other
+ * {@link #formats}, at no extra resolution cost.
  *
  * @author Eric Bottard
  * @author David Turanski
@@ -67,8 +62,9 @@ import org.springframework.util.StringUtils;
 @Mojo(name = "generate-documentation", requiresDependencyResolution = ResolutionScope.RUNTIME)
 public class ConfigurationMetadataDocumentationMojo extends AbstractMojo {
 
-	private BootApplicationConfigurationMetadataResolver metadataResolver =
-			new BootApplicationConfigurationMetadataResolver(imageName -> null);
+	private static final String START_MARKER = "//tag::configuration-properties[]";
+
+	private static final String END_MARKER = "//end::configuration-properties[]";
 
 	@Parameter(defaultValue = "${project}")
 	private MavenProject mavenProject;
@@ -76,81 +72,282 @@ public class ConfigurationMetadataDocumentationMojo extends AbstractMojo {
 	@Parameter(defaultValue = "false")
 	private boolean failOnMissingDescription;
 
-	public void execute() throws MojoExecutionException {
+	/**
+	 * Additional formats to document properties in, alongside README.adoc. Either one of
+	 * {@code asciidoc}, {@code markdown}, {@code html}, {@code json} or the fully qualified
+	 * name of a {@link ConfigurationPropertiesRenderer} implementation.
+	 */
+	@Parameter
+	private List<String> formats = new ArrayList<>();
+
+	/**
+	 * Where to write the additional formats, as {@code configuration-properties.<extension>}.
+	 */
+	@Parameter(defaultValue = "${project.build.directory}/documentation")
+	private File outputDirectory;
+
+	public void execute() throws MojoExecutionException, MojoFailureException {
+		try (DocumentationCache cache = new DocumentationCache()) {
+			int documented = document(mavenProject, cache);
+			if (documented >= 0) {
+				getLog().info(String.format("Documented %d configuration properties", documented));
+			}
+		}
+	}
 
-		File readme = new File(mavenProject.getBasedir(), "README.adoc");
+	/**
+	 * Document the given project, returning the number of properties documented or {@literal -1} if
+	 * there was nothing to do. Unless there was nothing to do, a report of where time was spent is
+	 * written to {@code target/documentation/documentation-metrics.json}: up to date projects are left
+	 * untouched.
+	 */
+	int document(MavenProject project, DocumentationCache cache) throws MojoExecutionException {
+		DocumentationMetrics metrics = new DocumentationMetrics();
+		int documented = -1;
+		boolean failed = true;
+		try {
+			documented = document(project, cache, metrics);
+			failed = false;
+			return documented;
+		}
+		finally {
+			metrics.stop();
+			if ((failed || documented >= 0) && !metrics.isEmpty()) {
+				getLog().info(metrics.summary());
+				File report = new File(project.getBuild().getDirectory(), "documentation/documentation-metrics.json");
+				try {
+					metrics.writeReport(report, project.getArtifactId());
+				}
+				catch (IOException e) {
+					getLog().warn("Could not write " + report, e);
+				}
+			}
+		}
+	}
+
+	private int document(MavenProject project, DocumentationCache cache, DocumentationMetrics metrics)
+			throws MojoExecutionException {
+
+		List<ConfigurationPropertiesRenderer> renderers = createRenderers();
+
+		File readme = new File(project.getBasedir(), "README.adoc");
+		ReadmeSection section = null;
+		long start = System.nanoTime();
 		if (!readme.exists()) {
-			getLog().info(String.format("No README.adoc file found in %s, skipping", mavenProject.getBasedir()));
-			return;
+			getLog().info(String.format("No README.adoc file found in %s", project.getBasedir()));
+		}
+		else if ((section = locateSection(readme)) == null) {
+			getLog().info(String.format("No documentation section marker found in %s", readme));
+		}
+		boolean updateReadme = section != null;
+		if (!updateReadme && renderers.isEmpty()) {
+			getLog().info(String.format("No documentation to generate in %s, skipping", project.getBasedir()));
+			return -1;
 		}
 
-		Artifact artifact = mavenProject.getArtifact();
+		Artifact artifact = project.getArtifact();
 		if (artifact.getFile() == null) {
 			getLog().info(String.format("Project in %s does not produce a build artifact, skipping",
-					mavenProject.getBasedir()));
-			return;
+					project.getBasedir()));
+			return -1;
+		}
+
+		metrics.record("readReadme", start);
+
+		String inputs = null;
+		if (updateReadme) {
+			start = System.nanoTime();
+			inputs = inputsFingerprint(project);
+			DocumentationFingerprint fingerprint = DocumentationFingerprint.load(getFingerprintFile(project));
+			metrics.record("fingerprint", start);
+			if (renderers.isEmpty() && fingerprint != null
+					&& fingerprint.matches(inputs, DocumentationFingerprint.section(section.getLines()))) {
+				getLog().info(String.format("%s is up to date", readme));
+				return -1;
+			}
 		}
 
-		File tmp = new File(readme.getPath() + ".tmp");
-		try (PrintWriter out = new PrintWriter(tmp);
-				BufferedReader reader = new BufferedReader(new FileReader(readme))) {
+		// Resolve once, whatever the number of formats
+		List<DocumentedProperty> properties = resolveProperties(project, cache, metrics);
 
-			String line = null;
-			do {
-				line = reader.readLine();
-				out.println(line);
+		if (updateReadme) {
+			start = System.nanoTime();
+			List<String> lines = asciidoc(properties);
+			updateReadme(readme, section, lines);
+			metrics.rendered(properties.size());
+			metrics.record("writeReadme", start);
+			try {
+				new DocumentationFingerprint(inputs, DocumentationFingerprint.section(lines))
+						.store(getFingerprintFile(project));
 			}
-			while (line != null && !line.startsWith("//tag::configuration-properties[]"));
-			if (line == null) {
-				getLog().info("No documentation section marker found");
-				return;
+			catch (IOException e) {
+				getLog().warn("Could not store documentation fingerprint", e);
 			}
+		}
+		for (ConfigurationPropertiesRenderer renderer : renderers) {
+			start = System.nanoTime();
+			render(renderer, properties, getOutputDirectory(project));
+			metrics.rendered(properties.size());
+			metrics.record("render", start);
+		}
+		return properties.size();
+	}
 
-			ScatteredArchive archive = new ScatteredArchive(mavenProject);
-			BootClassLoaderFactory bootClassLoaderFactory = new BootClassLoaderFactory(archive, null);
-			try (URLClassLoader classLoader = bootClassLoaderFactory.createClassLoader()) {
-				debug(classLoader);
+	/**
+	 * Return where additional formats should be written for the given project.
+	 */
+	File getOutputDirectory(MavenProject project) {
+		return outputDirectory;
+	}
 
-				List<ConfigurationMetadataProperty> properties = metadataResolver.listProperties(archive, false);
-				Collections.sort(properties, new Comparator<ConfigurationMetadataProperty>() {
+	MavenProject getMavenProject() {
+		return mavenProject;
+	}
 
-					@Override
-					public int compare(ConfigurationMetadataProperty p1, ConfigurationMetadataProperty p2) {
-						return p1.getId().compareTo(p2.getId());
-					}
-				});
+	/**
+	 * Return the fingerprint of what the README section of the given project was last generated from.
+	 */
+	File getFingerprintFile(MavenProject project) {
+		return new File(project.getBuild().getDirectory(), "documentation/README.adoc.fingerprint");
+	}
 
-				for (ConfigurationMetadataProperty property : properties) {
-					getLog().debug("Documenting " + property.getId());
-					out.println(asciidocFor(property, classLoader));
-				}
+	/**
+	 * Compute a cheap digest of everything the documentation of the given project depends on: its runtime
+	 * classpath, this plugin and the settings that affect rendering.
+	 */
+	String inputsFingerprint(MavenProject project) throws MojoExecutionException {
+		try {
+			List<String> elements = new ArrayList<>(project.getRuntimeClasspathElements());
+			elements.add(new File(getClass().getProtectionDomain().getCodeSource().getLocation().toURI()).getPath());
+			return DocumentationFingerprint.inputs(elements, "failOnMissingDescription=" + failOnMissingDescription);
+		}
+		catch (Exception e) {
+			throw new MojoExecutionException("Error computing documentation fingerprint", e);
+		}
+	}
 
-				do {
-					line = reader.readLine();
-					// drop lines
-				}
-				while (!line.startsWith("//end::configuration-properties[]"));
+	List<String> asciidoc(List<DocumentedProperty> properties) {
+		AsciidocRenderer asciidoc = new AsciidocRenderer();
+		List<String> lines = new ArrayList<>(properties.size());
+		for (DocumentedProperty property : properties) {
+			lines.add(asciidoc.render(property));
+		}
+		return lines;
+	}
 
-				// Copy remaining lines, including //end::configuration-properties[]
-				while (line != null) {
-					out.println(line);
-					line = reader.readLine();
+	List<DocumentedProperty> resolveProperties(MavenProject project, DocumentationCache cache,
+			DocumentationMetrics metrics) throws MojoExecutionException {
+		ScatteredArchive archive = new ScatteredArchive(project, cache, metrics);
+		// Not shared: projects may be documented concurrently and the resolver is not known to be thread safe
+		BootApplicationConfigurationMetadataResolver metadataResolver =
+				new BootApplicationConfigurationMetadataResolver(imageName -> null);
+		BootClassLoaderFactory bootClassLoaderFactory = new BootClassLoaderFactory(archive, null);
+		long start = System.nanoTime();
+		try (URLClassLoader classLoader = bootClassLoaderFactory.createClassLoader()) {
+			metrics.record("classLoader", start);
+			metrics.classLoaderUrls(classLoader.getURLs().length);
+			debug(classLoader);
+
+			start = System.nanoTime();
+			List<ConfigurationMetadataProperty> properties = metadataResolver.listProperties(archive, false);
+			metrics.record("listProperties", start);
+			Collections.sort(properties, new Comparator<ConfigurationMetadataProperty>() {
+
+				@Override
+				public int compare(ConfigurationMetadataProperty p1, ConfigurationMetadataProperty p2) {
+					return p1.getId().compareTo(p2.getId());
 				}
-				getLog().info(String.format("Documented %d configuration properties", properties.size()));
+			});
+
+			start = System.nanoTime();
+			List<DocumentedProperty> documented = new ArrayList<>(properties.size());
+			for (ConfigurationMetadataProperty property : properties) {
+				getLog().debug("Documenting " + property.getId());
+				documented.add(document(property, classLoader, cache, metrics));
 			}
+			metrics.record("hints", start);
+			return documented;
 		}
 		catch (Exception e) {
-			tmp.delete();
 			throw new MojoExecutionException("Error generating documentation", e);
 		}
+	}
+
+	/**
+	 * Return the lines in between the documentation markers of the given file, or {@code null} if there
+	 * is no such section. The file is not read past the end marker.
+	 */
+	List<String> readSection(File readme) throws MojoExecutionException {
+		ReadmeSection section = locateSection(readme);
+		return section != null ? section.getLines() : null;
+	}
 
+	private ReadmeSection locateSection(File readme) throws MojoExecutionException {
 		try {
-			Files.move(tmp.toPath(), readme.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			return ReadmeSection.locate(readme.toPath(), START_MARKER, END_MARKER);
+		}
+		catch (IllegalStateException e) {
+			throw new MojoExecutionException(e.getMessage());
 		}
 		catch (IOException e) {
-			throw new MojoExecutionException("Error moving tmp file to README.adoc", e);
+			throw new MojoExecutionException("Error reading README.adoc", e);
+		}
+	}
+
+	private void updateReadme(File readme, ReadmeSection section, List<String> lines) throws MojoExecutionException {
+		try {
+			if (!section.replace(readme.toPath(), lines)) {
+				getLog().debug(String.format("%s is unchanged", readme));
+			}
+		}
+		catch (IOException e) {
+			throw new MojoExecutionException("Error generating documentation", e);
+		}
+	}
+
+	private void render(ConfigurationPropertiesRenderer renderer, List<DocumentedProperty> properties,
+			File outputDirectory) throws MojoExecutionException {
+		File output = new File(outputDirectory, "configuration-properties." + renderer.getFileExtension());
+		outputDirectory.mkdirs();
+		try (Writer writer = Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8)) {
+			renderer.render(properties, writer);
+		}
+		catch (IOException e) {
+			throw new MojoExecutionException("Error writing " + output, e);
+		}
+		getLog().debug("Wrote " + output);
+	}
+
+	private List<ConfigurationPropertiesRenderer> createRenderers() throws MojoExecutionException {
+		List<ConfigurationPropertiesRenderer> renderers = new ArrayList<>();
+		if (formats != null) {
+			for (String format : formats) {
+				renderers.add(rendererFor(format.trim()));
+			}
 		}
+		return renderers;
+	}
 
+	ConfigurationPropertiesRenderer rendererFor(String format) throws MojoExecutionException {
+		switch (format.toLowerCase()) {
+		case "asciidoc":
+		case "adoc":
+			return new AsciidocRenderer();
+		case "markdown":
+		case "md":
+			return new MarkdownRenderer();
+		case "html":
+			return new HtmlRenderer();
+		case "json":
+			return new JsonRenderer();
+		}
+		try {
+			Class<?> clazz = ClassUtils.forName(format, getClass().getClassLoader());
+			return (ConfigurationPropertiesRenderer) clazz.getDeclaredConstructor().newInstance();
+		}
+		catch (Exception e) {
+			throw new MojoExecutionException("Unknown documentation format " + format, e);
+		}
 	}
 
 	private void debug(ClassLoader classLoader) {
@@ -160,13 +357,14 @@ public class ConfigurationMetadataDocumentationMojo extends AbstractMojo {
 		}
 	}
 
-	private String asciidocFor(ConfigurationMetadataProperty property, ClassLoader classLoader) {
-		return String.format("$$%s$$:: $$%s$$ *($$%s$$, default: `$$%s$$`%s)*",
-				property.getId(),
+	private DocumentedProperty document(ConfigurationMetadataProperty property, ClassLoader classLoader,
+			DocumentationCache cache, DocumentationMetrics metrics) {
+		return new DocumentedProperty(property.getId(),
 				niceDescription(property),
+				property.getType(),
 				niceType(property),
-				niceDefault(property),
-				maybeHints(property, classLoader));
+				property.getDefaultValue() == null ? null : stringify(property.getDefaultValue()),
+				possibleValues(property, classLoader, cache, metrics));
 	}
 
 	private String niceDescription(ConfigurationMetadataProperty property) {
@@ -181,33 +379,29 @@ public class ConfigurationMetadataDocumentationMojo extends AbstractMojo {
 		return property.getDescription();
 	}
 
-	private CharSequence maybeHints(ConfigurationMetadataProperty property, ClassLoader classLoader) {
+	private List<String> possibleValues(ConfigurationMetadataProperty property, ClassLoader classLoader,
+			DocumentationCache cache, DocumentationMetrics metrics) {
 		String type = property.getType();
 		if (type == null) {
-			return "";
+			return Collections.emptyList();
 		}
+		return cache.getPossibleValues(type, classLoader, () -> possibleValues(type, classLoader, metrics));
+	}
 
+	private List<String> possibleValues(String type, ClassLoader classLoader, DocumentationMetrics metrics) {
 		type = type.replace('$', '.');
 		if (ClassUtils.isPresent(type, classLoader)) {
 			Class<?> clazz = ClassUtils.resolveClassName(type, classLoader);
+			metrics.hintClassLoaded();
 			if (clazz.isEnum()) {
-				return ", possible values: `" + StringUtils.arrayToDelimitedString(clazz.getEnumConstants(), "`,`")
-						+ "`";
+				List<String> values = new ArrayList<>();
+				for (Object constant : clazz.getEnumConstants()) {
+					values.add(String.valueOf(constant));
+				}
+				return values;
 			}
 		}
-		return "";
-	}
-
-	private String niceDefault(ConfigurationMetadataProperty property) {
-		if (property.getDefaultValue() == null) {
-			return "<none>";
-		}
-		else if ("".equals(property.getDefaultValue())) {
-			return "<empty string>";
-		}
-		else {
-			return stringify(property.getDefaultValue());
-		}
+		return Collections.emptyList();
 	}
 
 	private String stringify(Object element) {
@@ -319,9 +513,17 @@ public class ConfigurationMetadataDocumentationMojo extends AbstractMojo {
 
 		private final MavenProject mavenProject;
 
-		private ScatteredArchive(MavenProject mavenProject) {
+		private final DocumentationCache cache;
+
+		private final DocumentationMetrics metrics;
+
+		private List<Archive> archives;
+
+		private ScatteredArchive(MavenProject mavenProject, DocumentationCache cache, DocumentationMetrics metrics) {
 
 			this.mavenProject = mavenProject;
+			this.cache = cache;
+			this.metrics = metrics;
 		}
 
 		@Override
@@ -336,18 +538,21 @@ public class ConfigurationMetadataDocumentationMojo extends AbstractMojo {
 
 		@Override
 		public List<Archive> getNestedArchives(EntryFilter ignored) throws IOException {
-			try {
-				List<Archive> archives = new ArrayList<>(mavenProject.getRuntimeClasspathElements().size());
-				for (String dep : mavenProject.getRuntimeClasspathElements()) {
-					File file = new File(dep);
-					archives.add(file.isDirectory() ? new ExplodedArchive(file) : new JarFileArchive(file));
+			if (archives == null) {
+				long start = System.nanoTime();
+				try {
+					List<Archive> nested = new ArrayList<>(mavenProject.getRuntimeClasspathElements().size());
+					for (String dep : mavenProject.getRuntimeClasspathElements()) {
+						nested.add(cache.getArchive(new File(dep), metrics));
+					}
+					archives = nested;
+					metrics.record("archives", start);
+				}
+				catch (DependencyResolutionRequiredException e) {
+					throw new IOException("Could not create boot archive", e);
 				}
-				return archives;
-			}
-			catch (DependencyResolutionRequiredException e) {
-				throw new IOException("Could not create boot archive", e);
 			}
-
+			return new ArrayList<>(archives);
 		}
 
 		@Override
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Strategy for writing the documented configuration properties of an app in a given format.
+ *
+ * <p>Properties are resolved (and sorted by id) only once per execution, then handed to every
+ * configured renderer. Custom implementations can be configured by their fully qualified class name
+ * and must expose a public no-arg constructor.</p>
+ */
+public interface ConfigurationPropertiesRenderer {
+
+	/**
+	 * Return the extension (without the leading dot) of files written by this renderer.
+	 */
+	String getFileExtension();
+
+	/**
+	 * Write the given properties, which are sorted by id.
+	 */
+	void render(List<DocumentedProperty> properties, Writer writer) throws IOException;
+
+}
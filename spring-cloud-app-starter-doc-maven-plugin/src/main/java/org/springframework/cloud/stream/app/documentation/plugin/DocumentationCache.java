@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.springframework.boot.loader.archive.Archive;
+import org.springframework.boot.loader.archive.ExplodedArchive;
+import org.springframework.boot.loader.archive.JarFileArchive;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Holds what can be shared when documenting several projects that have (mostly) the same dependencies:
+ * opened archives, keyed by classpath element, and enum values, keyed by the location of the class
+ * they were loaded from. Safe for concurrent use.
+ */
+class DocumentationCache implements AutoCloseable {
+
+	private final ConcurrentMap<File, Archive> archives = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, List<String>> possibleValues = new ConcurrentHashMap<>();
+
+	/**
+	 * Return the archive for the given classpath element, opening it on first access.
+	 */
+	Archive getArchive(File file, DocumentationMetrics metrics) throws IOException {
+		try {
+			return archives.computeIfAbsent(file, f -> {
+				try {
+					metrics.archiveOpened();
+					return f.isDirectory() ? new ExplodedArchive(f) : new JarFileArchive(f);
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+		catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Return the possible values of the given type, as seen by the given class loader. The result is
+	 * computed only once per class file location, which is the same as long as projects share the jar
+	 * that type comes from. Types that can't be located as a class file (such as generic types) are not cached.
+	 */
+	List<String> getPossibleValues(String type, ClassLoader classLoader, Supplier<List<String>> loader) {
+		String resource = ClassUtils.convertClassNameToResourcePath(type) + ClassUtils.CLASS_FILE_SUFFIX;
+		URL location = classLoader.getResource(resource);
+		if (location == null) {
+			return loader.get();
+		}
+		return possibleValues.computeIfAbsent(location.toString(), l -> loader.get());
+	}
+
+	@Override
+	public void close() {
+		for (Archive archive : archives.values()) {
+			if (archive instanceof AutoCloseable) {
+				try {
+					((AutoCloseable) archive).close();
+				}
+				catch (Exception e) {
+					// ignore
+				}
+			}
+		}
+		archives.clear();
+	}
+}
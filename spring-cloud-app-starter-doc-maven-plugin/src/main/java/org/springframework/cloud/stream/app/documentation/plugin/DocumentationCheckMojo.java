@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * A read-only variant of {@link ConfigurationMetadataDocumentationMojo} that fails the build when the
+ * configuration properties section of README.adoc is not what {@code generate-documentation} would write.
+ * No file is ever written.
+ *
+ * <p>If the fingerprint recorded by the last {@code generate-documentation} run still matches both the
+ * inputs and the current section, no metadata is resolved at all.</p>
+ */
+@Mojo(name = "check-documentation", defaultPhase = LifecyclePhase.VERIFY, threadSafe = true,
+		requiresDependencyResolution = ResolutionScope.RUNTIME)
+public class DocumentationCheckMojo extends ConfigurationMetadataDocumentationMojo {
+
+	private static final int MAX_REPORTED = 10;
+
+	@Override
+	public void execute() throws MojoExecutionException, MojoFailureException {
+		MavenProject project = getMavenProject();
+		File readme = new File(project.getBasedir(), "README.adoc");
+		if (!readme.exists()) {
+			getLog().info(String.format("No README.adoc file found in %s, nothing was checked", project.getBasedir()));
+			return;
+		}
+		List<String> current = readSection(readme);
+		if (current == null) {
+			getLog().info(String.format("No documentation section marker found in %s, nothing was checked", readme));
+			return;
+		}
+
+		DocumentationFingerprint fingerprint = DocumentationFingerprint.load(getFingerprintFile(project));
+		if (fingerprint != null
+				&& fingerprint.matches(inputsFingerprint(project), DocumentationFingerprint.section(current))) {
+			getLog().info(String.format("%s is up to date", readme));
+			return;
+		}
+
+		if (project.getArtifact() == null || project.getArtifact().getFile() == null) {
+			getLog().warn(String.format("Project in %s does not produce a build artifact, nothing was checked",
+					project.getBasedir()));
+			return;
+		}
+
+		List<String> expected;
+		DocumentationMetrics metrics = new DocumentationMetrics();
+		try (DocumentationCache cache = new DocumentationCache()) {
+			expected = asciidoc(resolveProperties(project, cache, metrics));
+		}
+		metrics.stop();
+		getLog().debug(metrics.summary());
+		if (expected.isEmpty() && current.isEmpty()) {
+			getLog().warn(String.format("No configuration properties metadata found for %s, nothing was checked",
+					project.getBasedir()));
+			return;
+		}
+		if (expected.equals(current)) {
+			getLog().info(String.format("%s is up to date", readme));
+			return;
+		}
+		throw new MojoFailureException(String.format("%s is out of date, run generate-documentation to update it. %s",
+				readme, describeDifferences(current, expected)));
+	}
+
+	/**
+	 * Summarize the differences between the current and expected documentation lines, by property.
+	 */
+	static String describeDifferences(List<String> current, List<String> expected) {
+		Map<String, String> actualLines = byProperty(current);
+		Map<String, String> expectedLines = byProperty(expected);
+
+		List<String> missing = new ArrayList<>();
+		List<String> changed = new ArrayList<>();
+		for (Map.Entry<String, String> entry : expectedLines.entrySet()) {
+			String actual = actualLines.get(entry.getKey());
+			if (actual == null) {
+				missing.add(entry.getKey());
+			}
+			else if (!actual.equals(entry.getValue())) {
+				changed.add(entry.getKey());
+			}
+		}
+		List<String> stale = new ArrayList<>();
+		for (String property : actualLines.keySet()) {
+			if (!expectedLines.containsKey(property)) {
+				stale.add(property);
+			}
+		}
+
+		StringBuilder sb = new StringBuilder(String.format("%d missing, %d stale, %d changed properties",
+				missing.size(), stale.size(), changed.size()));
+		if (missing.isEmpty() && stale.isEmpty() && changed.isEmpty()) {
+			sb.append(" (properties are out of order or separated differently)");
+		}
+		append(sb, "+ ", missing);
+		append(sb, "- ", stale);
+		append(sb, "~ ", changed);
+		return sb.toString();
+	}
+
+	private static Map<String, String> byProperty(List<String> lines) {
+		Map<String, String> result = new LinkedHashMap<>();
+		for (String line : lines) {
+			int end = line.startsWith("$$") ? line.indexOf("$$::", 2) : -1;
+			result.put(end > 0 ? line.substring(2, end) : line, line);
+		}
+		return result;
+	}
+
+	private static void append(StringBuilder sb, String prefix, List<String> properties) {
+		for (int i = 0; i < properties.size() && i < MAX_REPORTED; i++) {
+			sb.append(System.lineSeparator()).append(prefix).append(properties.get(i));
+		}
+		if (properties.size() > MAX_REPORTED) {
+			sb.append(System.lineSeparator()).append(prefix).append("... and ")
+					.append(properties.size() - MAX_REPORTED).append(" more");
+		}
+	}
+}
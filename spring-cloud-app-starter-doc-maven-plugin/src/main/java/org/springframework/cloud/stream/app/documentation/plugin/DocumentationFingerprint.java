@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Records what the documentation section of a README was generated from (a digest of the runtime classpath
+ * and of the plugin settings) along with a digest of the generated section. When neither the inputs nor the
+ * section have changed since, the section is known to be up to date without resolving any metadata.
+ */
+class DocumentationFingerprint {
+
+	private static final String INPUTS = "inputs";
+
+	private static final String SECTION = "section";
+
+	private final String inputs;
+
+	private final String section;
+
+	DocumentationFingerprint(String inputs, String section) {
+		this.inputs = inputs;
+		this.section = section;
+	}
+
+	/**
+	 * Compute the digest of the given classpath elements (paths, sizes and modification times, recursively
+	 * for directories) and settings. This does not read any file content.
+	 */
+	static String inputs(List<String> classpathElements, String settings) throws IOException {
+		MessageDigest digest = sha256();
+		update(digest, settings);
+		for (String element : classpathElements) {
+			Path path = new File(element).toPath();
+			update(digest, element);
+			if (Files.isDirectory(path)) {
+				try (Stream<Path> files = Files.walk(path)) {
+					for (Path file : files.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+						update(digest, path.relativize(file).toString());
+						update(digest, Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis());
+					}
+				}
+			}
+			else if (Files.exists(path)) {
+				update(digest, Files.size(path) + ":" + Files.getLastModifiedTime(path).toMillis());
+			}
+		}
+		return hex(digest.digest());
+	}
+
+	/**
+	 * Compute the digest of documentation section lines, regardless of line separators.
+	 */
+	static String section(List<String> lines) {
+		MessageDigest digest = sha256();
+		for (String line : lines) {
+			update(digest, line);
+		}
+		return hex(digest.digest());
+	}
+
+	static DocumentationFingerprint load(File file) {
+		if (!file.isFile()) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream is = Files.newInputStream(file.toPath())) {
+			properties.load(is);
+		}
+		catch (IOException e) {
+			return null;
+		}
+		return new DocumentationFingerprint(properties.getProperty(INPUTS), properties.getProperty(SECTION));
+	}
+
+	void store(File file) throws IOException {
+		file.getParentFile().mkdirs();
+		Properties properties = new Properties();
+		properties.setProperty(INPUTS, inputs);
+		properties.setProperty(SECTION, section);
+		try (OutputStream os = Files.newOutputStream(file.toPath())) {
+			properties.store(os, "Fingerprint of the configuration properties section of README.adoc");
+		}
+	}
+
+	boolean matches(String inputs, String section) {
+		return inputs.equals(this.inputs) && section.equals(this.section);
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(value.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) '\n');
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String hex(byte[] bytes) {
+		StringBuilder sb = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+}
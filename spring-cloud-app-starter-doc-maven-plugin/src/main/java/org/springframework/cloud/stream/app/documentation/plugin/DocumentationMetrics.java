@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings and counters gathered while documenting a single project, to tell where time (or memory) goes.
+ * Phases are recorded in the order they first happen and accumulate if they happen more than once.
+ */
+class DocumentationMetrics {
+
+	private final long start = System.nanoTime();
+
+	private final Map<String, Long> phases = new LinkedHashMap<>();
+
+	private long total;
+
+	private int archivesOpened;
+
+	private int classLoaderUrls;
+
+	private int hintClassesLoaded;
+
+	private int propertiesRendered;
+
+	private int outputsWritten;
+
+	/**
+	 * Record the time spent in the given phase, since {@code startNanos}.
+	 */
+	void record(String phase, long startNanos) {
+		phases.merge(phase, System.nanoTime() - startNanos, Long::sum);
+	}
+
+	void archiveOpened() {
+		archivesOpened++;
+	}
+
+	void classLoaderUrls(int count) {
+		classLoaderUrls = count;
+	}
+
+	void hintClassLoaded() {
+		hintClassesLoaded++;
+	}
+
+	void rendered(int properties) {
+		propertiesRendered = properties;
+		outputsWritten++;
+	}
+
+	void stop() {
+		total = System.nanoTime() - start;
+	}
+
+	boolean isEmpty() {
+		return phases.isEmpty();
+	}
+
+	/**
+	 * Return a one line summary, suitable for logging.
+	 */
+	String summary() {
+		StringBuilder sb = new StringBuilder(String.format("Documentation took %d ms (", millis(total)));
+		String separator = "";
+		for (Map.Entry<String, Long> phase : phases.entrySet()) {
+			sb.append(separator).append(phase.getKey()).append(' ').append(millis(phase.getValue())).append(" ms");
+			separator = ", ";
+		}
+		return sb.append(String.format("), %d archives opened, %d class loader URLs, %d classes loaded for hints, "
+				+ "%d properties rendered to %d outputs", archivesOpened, classLoaderUrls, hintClassesLoaded,
+				propertiesRendered, outputsWritten)).toString();
+	}
+
+	void writeReport(File file, String project) throws IOException {
+		file.getParentFile().mkdirs();
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writer.write("{\n");
+			writer.write("  \"project\": " + JsonRenderer.quote(project) + ",\n");
+			writer.write("  \"totalMillis\": " + millis(total) + ",\n");
+			writer.write("  \"phaseMillis\": {");
+			String separator = "\n";
+			for (Map.Entry<String, Long> phase : phases.entrySet()) {
+				writer.write(separator + "    " + JsonRenderer.quote(phase.getKey()) + ": " + millis(phase.getValue()));
+				separator = ",\n";
+			}
+			writer.write(phases.isEmpty() ? "},\n" : "\n  },\n");
+			writer.write("  \"archivesOpened\": " + archivesOpened + ",\n");
+			writer.write("  \"classLoaderUrls\": " + classLoaderUrls + ",\n");
+			writer.write("  \"hintClassesLoaded\": " + hintClassesLoaded + ",\n");
+			writer.write("  \"propertiesRendered\": " + propertiesRendered + ",\n");
+			writer.write("  \"outputsWritten\": " + outputsWritten + "\n");
+			writer.write("}\n");
+		}
+	}
+
+	private static long millis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+}
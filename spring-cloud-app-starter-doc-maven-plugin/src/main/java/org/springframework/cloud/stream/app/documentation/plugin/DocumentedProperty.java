@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A configuration property as it is documented: metadata has been resolved and enum hints have been
+ * looked up once, so that every {@link ConfigurationPropertiesRenderer} works off the same values.
+ */
+public class DocumentedProperty {
+
+	private final String id;
+
+	private final String description;
+
+	private final String type;
+
+	private final String shortType;
+
+	private final String defaultValue;
+
+	private final List<String> possibleValues;
+
+	public DocumentedProperty(String id, String description, String type, String shortType, String defaultValue,
+			List<String> possibleValues) {
+		this.id = id;
+		this.description = description;
+		this.type = type;
+		this.shortType = shortType;
+		this.defaultValue = defaultValue;
+		this.possibleValues = possibleValues == null ? Collections.<String>emptyList() : possibleValues;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * Return the description of the property, or {@literal <documentation missing>}.
+	 */
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * Return the fully qualified type of the property, or {@code null} if unknown.
+	 */
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * Return the unqualified (generics aware) type of the property, or {@literal <unknown>}.
+	 */
+	public String getShortType() {
+		return shortType;
+	}
+
+	/**
+	 * Return the default value of the property, rendered as a String, or {@code null} if there is none.
+	 */
+	public String getDefaultValue() {
+		return defaultValue;
+	}
+
+	/**
+	 * Return a human friendly version of the default value, suitable for display.
+	 */
+	public String getDisplayDefaultValue() {
+		if (defaultValue == null) {
+			return "<none>";
+		}
+		else if (defaultValue.isEmpty()) {
+			return "<empty string>";
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * Return the possible values of the property (as is the case for enums), possibly empty.
+	 */
+	public List<String> getPossibleValues() {
+		return possibleValues;
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Renders properties as an HTML table fragment, meant to be included in a larger page.
+ */
+class HtmlRenderer implements ConfigurationPropertiesRenderer {
+
+	@Override
+	public String getFileExtension() {
+		return "html";
+	}
+
+	@Override
+	public void render(List<DocumentedProperty> properties, Writer writer) throws IOException {
+		writer.write("<table class=\"configuration-properties\">\n");
+		writer.write("  <thead>\n");
+		writer.write("    <tr><th>Property</th><th>Description</th><th>Type</th><th>Default</th>"
+				+ "<th>Possible values</th></tr>\n");
+		writer.write("  </thead>\n");
+		writer.write("  <tbody>\n");
+		for (DocumentedProperty property : properties) {
+			writer.write("    <tr>");
+			cell(writer, "<code>" + escape(property.getId()) + "</code>");
+			cell(writer, escape(property.getDescription()));
+			cell(writer, "<code>" + escape(property.getShortType()) + "</code>");
+			cell(writer, "<code>" + escape(property.getDisplayDefaultValue()) + "</code>");
+			cell(writer, escape(StringUtils.collectionToDelimitedString(property.getPossibleValues(), ", ")));
+			writer.write("</tr>\n");
+		}
+		writer.write("  </tbody>\n");
+		writer.write("</table>\n");
+	}
+
+	private void cell(Writer writer, String content) throws IOException {
+		writer.write("<td>");
+		writer.write(content);
+		writer.write("</td>");
+	}
+
+	private String escape(String text) {
+		StringBuilder sb = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+			case '<':
+				sb.append("&lt;");
+				break;
+			case '>':
+				sb.append("&gt;");
+				break;
+			case '&':
+				sb.append("&amp;");
+				break;
+			case '"':
+				sb.append("&quot;");
+				break;
+			default:
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+}
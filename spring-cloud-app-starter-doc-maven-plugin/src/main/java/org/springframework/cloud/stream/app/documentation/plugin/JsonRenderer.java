@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Renders properties as a JSON array, suitable as a machine readable index of an app configuration.
+ */
+class JsonRenderer implements ConfigurationPropertiesRenderer {
+
+	@Override
+	public String getFileExtension() {
+		return "json";
+	}
+
+	@Override
+	public void render(List<DocumentedProperty> properties, Writer writer) throws IOException {
+		writer.write("[");
+		for (int i = 0; i < properties.size(); i++) {
+			DocumentedProperty property = properties.get(i);
+			writer.write(i == 0 ? "\n" : ",\n");
+			writer.write("  {\n");
+			writer.write("    \"name\": " + quote(property.getId()) + ",\n");
+			writer.write("    \"type\": " + quote(property.getType()) + ",\n");
+			writer.write("    \"description\": " + quote(property.getDescription()) + ",\n");
+			writer.write("    \"defaultValue\": " + quote(property.getDefaultValue()) + ",\n");
+			writer.write("    \"possibleValues\": [");
+			for (int j = 0; j < property.getPossibleValues().size(); j++) {
+				writer.write(j == 0 ? "" : ", ");
+				writer.write(quote(property.getPossibleValues().get(j)));
+			}
+			writer.write("]\n");
+			writer.write("  }");
+		}
+		writer.write(properties.isEmpty() ? "]\n" : "\n]\n");
+	}
+
+	/**
+	 * Return the given text as a JSON string literal, or {@code null}.
+	 */
+	static String quote(String text) {
+		if (text == null) {
+			return "null";
+		}
+		StringBuilder sb = new StringBuilder(text.length() + 2).append('"');
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					sb.append(String.format("\\u%04x", (int) c));
+				}
+				else {
+					sb.append(c);
+				}
+			}
+		}
+		return sb.append('"').toString();
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Renders properties as a GitHub flavored markdown table.
+ */
+class MarkdownRenderer implements ConfigurationPropertiesRenderer {
+
+	@Override
+	public String getFileExtension() {
+		return "md";
+	}
+
+	@Override
+	public void render(List<DocumentedProperty> properties, Writer writer) throws IOException {
+		writer.write("| Property | Description | Type | Default | Possible values |\n");
+		writer.write("|---|---|---|---|---|\n");
+		for (DocumentedProperty property : properties) {
+			writer.write("| `");
+			writer.write(escape(property.getId()));
+			writer.write("` | ");
+			writer.write(escape(property.getDescription()));
+			writer.write(" | `");
+			writer.write(escape(property.getShortType()));
+			writer.write("` | `");
+			writer.write(escape(property.getDisplayDefaultValue()));
+			writer.write("` | ");
+			if (!property.getPossibleValues().isEmpty()) {
+				writer.write("`");
+				writer.write(escape(StringUtils.collectionToDelimitedString(property.getPossibleValues(), "`, `")));
+				writer.write("`");
+			}
+			writer.write(" |\n");
+		}
+	}
+
+	private String escape(String text) {
+		return text.replace("|", "\\|").replace("\r", "").replace("\n", " ");
+	}
+
+}
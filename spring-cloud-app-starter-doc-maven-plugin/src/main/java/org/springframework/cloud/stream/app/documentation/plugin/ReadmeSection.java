@@ -0,0 +1,237 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The region of a (UTF-8) file located between a line starting with a start marker and a line starting
+ * with an end marker, both excluded.
+ *
+ * <p>The file is scanned as bytes, only lines of the region are decoded. When the region is replaced, the
+ * bytes before and after it are copied as is and new lines use the separator the file already uses, so
+ * that line endings and content outside of the region are left untouched. The file is replaced atomically
+ * where supported, keeping its POSIX permissions.</p>
+ */
+class ReadmeSection {
+
+	private final long start;
+
+	private final long end;
+
+	private final String lineSeparator;
+
+	private final List<String> lines;
+
+	private ReadmeSection(long start, long end, String lineSeparator, List<String> lines) {
+		this.start = start;
+		this.end = end;
+		this.lineSeparator = lineSeparator;
+		this.lines = lines;
+	}
+
+	/**
+	 * Locate the region of the given file delimited by the given markers, returning {@code null} if there is
+	 * no start marker.
+	 * @throws IllegalStateException if there is a start marker but no end marker
+	 */
+	static ReadmeSection locate(Path file, String startMarker, String endMarker) throws IOException {
+		byte[] startBytes = startMarker.getBytes(StandardCharsets.UTF_8);
+		byte[] endBytes = endMarker.getBytes(StandardCharsets.UTF_8);
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+			LineReader reader = new LineReader(in);
+			while (reader.next()) {
+				if (reader.startsWith(startBytes)) {
+					long start = reader.offset;
+					List<String> lines = new ArrayList<>();
+					while (reader.next()) {
+						if (reader.startsWith(endBytes)) {
+							return new ReadmeSection(start, reader.lineStart, reader.separator(), lines);
+						}
+						lines.add(reader.line());
+					}
+					throw new IllegalStateException("No " + endMarker + " marker found in " + file);
+				}
+			}
+			return null;
+		}
+	}
+
+	List<String> getLines() {
+		return lines;
+	}
+
+	String getLineSeparator() {
+		return lineSeparator;
+	}
+
+	/**
+	 * Replace the region with the given lines, unless they are the same as the current ones.
+	 * @return whether the file was written
+	 */
+	boolean replace(Path file, List<String> replacement) throws IOException {
+		if (replacement.equals(lines)) {
+			return false;
+		}
+		StringBuilder sb = new StringBuilder();
+		for (String line : replacement) {
+			sb.append(line).append(lineSeparator);
+		}
+		ByteBuffer region = StandardCharsets.UTF_8.encode(sb.toString());
+
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ);
+				FileChannel target = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+						StandardOpenOption.TRUNCATE_EXISTING)) {
+			transfer(source, 0, start, target);
+			while (region.hasRemaining()) {
+				target.write(region);
+			}
+			transfer(source, end, source.size() - end, target);
+			copyPermissions(file, tmp);
+		}
+		catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(tmp);
+			throw e;
+		}
+
+		try {
+			Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+		return true;
+	}
+
+	/**
+	 * Give the target file the POSIX permissions of the source one, where supported.
+	 */
+	private static void copyPermissions(Path source, Path target) throws IOException {
+		PosixFileAttributeView view = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+		if (view != null) {
+			Files.setPosixFilePermissions(target, view.readAttributes().permissions());
+		}
+	}
+
+	private static void transfer(FileChannel source, long position, long count, FileChannel target)
+			throws IOException {
+		while (count > 0) {
+			long transferred = source.transferTo(position, count, target);
+			position += transferred;
+			count -= transferred;
+		}
+	}
+
+	/**
+	 * Reads a stream line by line, keeping the raw bytes of the current line and track of offsets.
+	 */
+	private static class LineReader {
+
+		private final InputStream in;
+
+		private final ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+
+		private long lineStart;
+
+		private long offset;
+
+		private String separator;
+
+		private int pending = -1;
+
+		LineReader(InputStream in) {
+			this.in = in;
+		}
+
+		/**
+		 * Advance to the next line, returning {@code false} at the end of the stream.
+		 */
+		boolean next() throws IOException {
+			line.reset();
+			lineStart = offset;
+			int b = pending >= 0 ? pending : in.read();
+			pending = -1;
+			if (b < 0) {
+				return false;
+			}
+			while (b >= 0) {
+				offset++;
+				if (b == '\n') {
+					detected("\n");
+					return true;
+				}
+				if (b == '\r') {
+					int following = in.read();
+					if (following == '\n') {
+						offset++;
+						detected("\r\n");
+					}
+					else {
+						pending = following;
+						detected("\r");
+					}
+					return true;
+				}
+				line.write(b);
+				b = in.read();
+			}
+			return true;
+		}
+
+		boolean startsWith(byte[] prefix) {
+			if (line.size() < prefix.length) {
+				return false;
+			}
+			byte[] bytes = line.toByteArray();
+			for (int i = 0; i < prefix.length; i++) {
+				if (bytes[i] != prefix[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		String line() {
+			return new String(line.toByteArray(), StandardCharsets.UTF_8);
+		}
+
+		String separator() {
+			return separator != null ? separator : System.lineSeparator();
+		}
+
+		private void detected(String separator) {
+			if (this.separator == null) {
+				this.separator = separator;
+			}
+		}
+	}
+}
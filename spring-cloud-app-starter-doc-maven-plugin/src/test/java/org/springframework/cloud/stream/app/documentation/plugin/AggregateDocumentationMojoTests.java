@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.boot.loader.archive.Archive;
+import org.springframework.util.ReflectionUtils;
+
+import static org.junit.Assert.*;
+
+public class AggregateDocumentationMojoTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testFailuresOfEveryModuleAreReported() throws Exception {
+		AggregateDocumentationMojo mojo = new AggregateDocumentationMojo();
+		setField(mojo, "reactorProjects", Arrays.asList(project("broken-a", "//tag::configuration-properties[]\n"),
+				project("no-readme", null), project("broken-b", "//tag::configuration-properties[]\n")));
+		setField(mojo, "threads", 2);
+
+		try {
+			mojo.execute();
+			fail("Expected the broken modules to fail the build");
+		}
+		catch (MojoExecutionException e) {
+			assertTrue(e.getMessage(), e.getMessage().startsWith("Error generating documentation for 2 module(s)"));
+			assertTrue(e.getMessage(), e.getMessage().contains("broken-a: "));
+			assertTrue(e.getMessage(), e.getMessage().contains("broken-b: "));
+			assertFalse(e.getMessage(), e.getMessage().contains("no-readme"));
+		}
+	}
+
+	@Test
+	public void testModulesWithoutDocumentationAreSkipped() throws Exception {
+		AggregateDocumentationMojo mojo = new AggregateDocumentationMojo();
+		MavenProject noMarker = project("no-marker", "= No Marker\n");
+		setField(mojo, "reactorProjects", Arrays.asList(project("no-readme", null), noMarker));
+		setField(mojo, "threads", 4);
+
+		mojo.execute();
+
+		assertFalse(new File(noMarker.getBuild().getDirectory(), "documentation").exists());
+	}
+
+	@Test
+	public void testCacheOpensSharedArchivesOnce() throws Exception {
+		File classes = temporaryFolder.newFolder("classes");
+		List<Archive> archives = concurrently(16, cache -> cache.getArchive(classes, new DocumentationMetrics()));
+
+		assertEquals(1, identities(archives).size());
+	}
+
+	@Test
+	public void testCacheComputesPossibleValuesOnce() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		List<List<String>> values = concurrently(16, cache -> cache.getPossibleValues("java.util.concurrent.TimeUnit",
+				getClass().getClassLoader(), () -> {
+					loads.incrementAndGet();
+					return Collections.singletonList("SECONDS");
+				}));
+
+		assertEquals(1, loads.get());
+		assertEquals(1, identities(values).size());
+	}
+
+	/**
+	 * Call the given action from as many threads, all started at once, on the same cache.
+	 */
+	private <T> List<T> concurrently(int threads, CacheAction<T> action) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		try (DocumentationCache cache = new DocumentationCache()) {
+			List<Future<T>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit((Callable<T>) () -> {
+					start.await();
+					return action.apply(cache);
+				}));
+			}
+			start.countDown();
+			List<T> results = new ArrayList<>();
+			for (Future<T> future : futures) {
+				results.add(future.get());
+			}
+			return results;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static Set<Object> identities(List<?> objects) {
+		Set<Object> identities = Collections.newSetFromMap(new IdentityHashMap<>());
+		identities.addAll(objects);
+		return identities;
+	}
+
+	private MavenProject project(String artifactId, String readme) throws Exception {
+		File basedir = temporaryFolder.newFolder(artifactId);
+		if (readme != null) {
+			Files.write(new File(basedir, "README.adoc").toPath(), readme.getBytes(StandardCharsets.UTF_8));
+		}
+		MavenProject project = new MavenProject();
+		project.setArtifactId(artifactId);
+		project.setFile(new File(basedir, "pom.xml"));
+		project.getBuild().setDirectory(new File(basedir, "target").getPath());
+		return project;
+	}
+
+	private static void setField(Object target, String name, Object value) {
+		Field field = ReflectionUtils.findField(target.getClass(), name);
+		ReflectionUtils.makeAccessible(field);
+		ReflectionUtils.setField(field, target, value);
+	}
+
+	private interface CacheAction<T> {
+
+		T apply(DocumentationCache cache) throws Exception;
+	}
+
+}
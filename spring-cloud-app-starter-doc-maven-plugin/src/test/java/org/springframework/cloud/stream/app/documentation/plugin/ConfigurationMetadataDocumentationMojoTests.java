@@ -16,6 +16,11 @@
 
 package org.springframework.cloud.stream.app.documentation.plugin;
 
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -36,4 +41,37 @@ public class ConfigurationMetadataDocumentationMojoTests {
 		assertEquals("Entry<String, Map<Integer, List<Long>>>", s);
 	}
 
+	@Test
+	public void testRenderers() throws Exception {
+		ConfigurationMetadataDocumentationMojo mojo = new ConfigurationMetadataDocumentationMojo();
+		List<DocumentedProperty> properties = Arrays.asList(
+				new DocumentedProperty("foo.mode", "The \"mode\" | style.", "com.acme.Mode", "Mode", null,
+						Arrays.asList("FAST", "SLOW")),
+				new DocumentedProperty("foo.name", "The name.", "java.lang.String", "String", "",
+						Collections.<String>emptyList()));
+
+		assertEquals("$$foo.mode$$:: $$The \"mode\" | style.$$ *($$Mode$$, default: `$$<none>$$`, possible values: `FAST`,`SLOW`)*\n"
+				+ "$$foo.name$$:: $$The name.$$ *($$String$$, default: `$$<empty string>$$`)*\n",
+				render(mojo.rendererFor("asciidoc"), properties));
+
+		String markdown = render(mojo.rendererFor("markdown"), properties);
+		assertTrue(markdown.contains("| `foo.mode` | The \"mode\" \\| style. | `Mode` | `<none>` | `FAST`, `SLOW` |\n"));
+
+		String html = render(mojo.rendererFor("html"), properties);
+		assertTrue(html.contains("<td>The &quot;mode&quot; | style.</td>"));
+		assertTrue(html.contains("<td><code>&lt;empty string&gt;</code></td>"));
+
+		String json = render(mojo.rendererFor("json"), properties);
+		assertTrue(json.contains("\"description\": \"The \\\"mode\\\" | style.\""));
+		assertTrue(json.contains("\"defaultValue\": null"));
+		assertTrue(json.contains("\"possibleValues\": [\"FAST\", \"SLOW\"]"));
+	}
+
+	private String render(ConfigurationPropertiesRenderer renderer, List<DocumentedProperty> properties)
+			throws Exception {
+		StringWriter writer = new StringWriter();
+		renderer.render(properties, writer);
+		return writer.toString();
+	}
+
 }
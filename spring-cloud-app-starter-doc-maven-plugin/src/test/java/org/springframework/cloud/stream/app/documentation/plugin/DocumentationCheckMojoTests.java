@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.util.ReflectionUtils;
+
+import static org.junit.Assert.*;
+
+public class DocumentationCheckMojoTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testDifferencesSummary() {
+		List<String> current = Arrays.asList(
+				"$$a.kept$$:: $$Kept.$$ *($$String$$, default: `$$<none>$$`)*",
+				"$$a.old$$:: $$Gone.$$ *($$String$$, default: `$$<none>$$`)*",
+				"$$a.timeout$$:: $$Timeout.$$ *($$Integer$$, default: `$$10$$`)*");
+		List<String> expected = Arrays.asList(
+				"$$a.kept$$:: $$Kept.$$ *($$String$$, default: `$$<none>$$`)*",
+				"$$a.new$$:: $$Added.$$ *($$String$$, default: `$$<none>$$`)*",
+				"$$a.timeout$$:: $$Timeout.$$ *($$Integer$$, default: `$$20$$`)*");
+
+		String summary = DocumentationCheckMojo.describeDifferences(current, expected);
+		assertTrue(summary.startsWith("1 missing, 1 stale, 1 changed properties"));
+		assertTrue(summary.contains("+ a.new"));
+		assertTrue(summary.contains("- a.old"));
+		assertTrue(summary.contains("~ a.timeout"));
+		assertFalse(summary.contains("a.kept"));
+	}
+
+	@Test
+	public void testSectionFingerprint() {
+		List<String> lines = Arrays.asList("$$a$$:: $$A.$$", "$$b$$:: $$B.$$");
+		assertEquals(DocumentationFingerprint.section(lines),
+				DocumentationFingerprint.section(Arrays.asList("$$a$$:: $$A.$$", "$$b$$:: $$B.$$")));
+		assertNotEquals(DocumentationFingerprint.section(lines),
+				DocumentationFingerprint.section(Arrays.asList("$$b$$:: $$B.$$", "$$a$$:: $$A.$$")));
+	}
+
+	@Test
+	public void testProjectWithoutArtifactIsReportedAsNotChecked() throws Exception {
+		File basedir = temporaryFolder.newFolder("app");
+		Files.write(new File(basedir, "README.adoc").toPath(),
+				"//tag::configuration-properties[]\n//end::configuration-properties[]\n".getBytes(StandardCharsets.UTF_8));
+		MavenProject project = new MavenProject();
+		project.setFile(new File(basedir, "pom.xml"));
+		project.getBuild().setDirectory(new File(basedir, "target").getPath());
+
+		DocumentationCheckMojo mojo = new DocumentationCheckMojo();
+		Field field = ReflectionUtils.findField(DocumentationCheckMojo.class, "mavenProject");
+		ReflectionUtils.makeAccessible(field);
+		ReflectionUtils.setField(field, mojo, project);
+		List<String> warnings = new ArrayList<>();
+		mojo.setLog(new SystemStreamLog() {
+
+			@Override
+			public void warn(CharSequence content) {
+				warnings.add(content.toString());
+			}
+		});
+
+		mojo.execute();
+
+		assertEquals(1, warnings.size());
+		assertTrue(warnings.get(0), warnings.get(0).endsWith("does not produce a build artifact, nothing was checked"));
+	}
+
+}
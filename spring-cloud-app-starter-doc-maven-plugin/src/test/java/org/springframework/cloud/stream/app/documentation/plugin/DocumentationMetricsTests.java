@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.project.MavenProject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class DocumentationMetricsTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testReport() throws Exception {
+		DocumentationMetrics metrics = new DocumentationMetrics();
+		metrics.record("archives", System.nanoTime());
+		metrics.record("hints", System.nanoTime());
+		metrics.record("archives", System.nanoTime());
+		metrics.archiveOpened();
+		metrics.archiveOpened();
+		metrics.classLoaderUrls(12);
+		metrics.hintClassLoaded();
+		metrics.rendered(7);
+		metrics.rendered(7);
+		metrics.stop();
+
+		assertFalse(metrics.isEmpty());
+		String summary = metrics.summary();
+		assertTrue(summary, summary.matches("Documentation took \\d+ ms \\(archives \\d+ ms, hints \\d+ ms\\), "
+				+ "2 archives opened, 12 class loader URLs, 1 classes loaded for hints, "
+				+ "7 properties rendered to 2 outputs"));
+
+		File report = new File(temporaryFolder.getRoot(), "documentation/documentation-metrics.json");
+		metrics.writeReport(report, "log-sink");
+		String json = new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+		assertTrue(json, json.contains("\"project\": \"log-sink\""));
+		assertTrue(json, json.matches("(?s).*\"phaseMillis\": \\{\n    \"archives\": \\d+,\n    \"hints\": \\d+\n  },.*"));
+		assertTrue(json, json.contains("\"archivesOpened\": 2,"));
+		assertTrue(json, json.contains("\"outputsWritten\": 2\n}"));
+	}
+
+	@Test
+	public void testEmptyReport() throws Exception {
+		DocumentationMetrics metrics = new DocumentationMetrics();
+		metrics.stop();
+
+		assertTrue(metrics.isEmpty());
+		File report = temporaryFolder.newFile("documentation-metrics.json");
+		metrics.writeReport(report, "empty");
+		assertTrue(new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8)
+				.contains("\"phaseMillis\": {},"));
+	}
+
+	@Test
+	public void testNoReportWhenUpToDate() throws Exception {
+		File basedir = temporaryFolder.newFolder("app");
+		Files.write(new File(basedir, "README.adoc").toPath(), ("//tag::configuration-properties[]\n$$a$$:: $$A.$$\n"
+				+ "//end::configuration-properties[]\n").getBytes(StandardCharsets.UTF_8));
+		MavenProject project = new MavenProject();
+		project.setFile(new File(basedir, "pom.xml"));
+		project.getBuild().setDirectory(new File(basedir, "target").getPath());
+		project.getBuild().setOutputDirectory(temporaryFolder.newFolder("app", "target", "classes").getPath());
+		DefaultArtifact artifact = new DefaultArtifact("org.acme", "app", "1.0", "compile", "jar", null,
+				new DefaultArtifactHandler("jar"));
+		artifact.setFile(temporaryFolder.newFile("app.jar"));
+		project.setArtifact(artifact);
+
+		ConfigurationMetadataDocumentationMojo mojo = new ConfigurationMetadataDocumentationMojo();
+		new DocumentationFingerprint(mojo.inputsFingerprint(project),
+				DocumentationFingerprint.section(Collections.singletonList("$$a$$:: $$A.$$")))
+				.store(mojo.getFingerprintFile(project));
+
+		try (DocumentationCache cache = new DocumentationCache()) {
+			assertEquals(-1, mojo.document(project, cache));
+		}
+		assertFalse(new File(basedir, "target/documentation/documentation-metrics.json").exists());
+	}
+
+}
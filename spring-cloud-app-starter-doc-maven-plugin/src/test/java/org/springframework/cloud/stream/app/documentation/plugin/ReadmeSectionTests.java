@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeNotNull;
+
+public class ReadmeSectionTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testReplacePreservesLineEndingsAndSurroundingBytes() throws Exception {
+		Path readme = temporaryFolder.newFile("README.adoc").toPath();
+		String prefix = "= Caf\u00e9\r\n\r\n//tag::props[]\r\n";
+		String suffix = "//end::props[]\r\nTrailing text without separator";
+		write(readme, prefix + "$$old$$\r\n" + suffix);
+
+		ReadmeSection section = ReadmeSection.locate(readme, "//tag::props[]", "//end::props[]");
+		assertEquals(Arrays.asList("$$old$$"), section.getLines());
+		assertEquals("\r\n", section.getLineSeparator());
+
+		assertTrue(section.replace(readme, Arrays.asList("$$new.a$$", "$$new.b$$")));
+		assertEquals(prefix + "$$new.a$$\r\n$$new.b$$\r\n" + suffix,
+				new String(Files.readAllBytes(readme), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testUnchangedSectionIsNotWritten() throws Exception {
+		Path readme = temporaryFolder.newFile("README.adoc").toPath();
+		write(readme, "//tag::props[]\n$$a$$\n//end::props[]\n");
+		Files.setLastModifiedTime(readme, FileTime.fromMillis(1000));
+
+		ReadmeSection section = ReadmeSection.locate(readme, "//tag::props[]", "//end::props[]");
+		assertFalse(section.replace(readme, Arrays.asList("$$a$$")));
+		assertEquals(1000, Files.getLastModifiedTime(readme).toMillis());
+	}
+
+	@Test
+	public void testMissingMarkers() throws Exception {
+		Path readme = temporaryFolder.newFile("README.adoc").toPath();
+		write(readme, "No marker here\n");
+		assertNull(ReadmeSection.locate(readme, "//tag::props[]", "//end::props[]"));
+
+		write(readme, "//tag::props[]\n$$a$$\n");
+		try {
+			ReadmeSection.locate(readme, "//tag::props[]", "//end::props[]");
+			fail("Expected missing end marker to be reported");
+		}
+		catch (IllegalStateException e) {
+			assertTrue(e.getMessage().contains("//end::props[]"));
+		}
+	}
+
+	@Test
+	public void testReplaceKeepsPermissions() throws Exception {
+		Path readme = temporaryFolder.newFile("README.adoc").toPath();
+		assumeNotNull(Files.getFileAttributeView(readme, PosixFileAttributeView.class));
+		write(readme, "//tag::props[]\n$$a$$\n//end::props[]\n");
+		Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-rw----");
+		Files.setPosixFilePermissions(readme, permissions);
+
+		ReadmeSection section = ReadmeSection.locate(readme, "//tag::props[]", "//end::props[]");
+		assertTrue(section.replace(readme, Arrays.asList("$$b$$")));
+		assertEquals(permissions, Files.getPosixFilePermissions(readme));
+	}
+
+	private static void write(Path file, String content) throws Exception {
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.metadata;
+
+import java.util.Properties;
+
+import org.springframework.boot.configurationprocessor.metadata.ConfigurationMetadata;
+
+/**
+ * A tuple holding both the aggregated configuration metadata and visible properties of an application.
+ */
+public final class AggregatedMetadata {
+
+	private final ConfigurationMetadata metadata;
+
+	private final Properties visible;
+
+	AggregatedMetadata(ConfigurationMetadata metadata, Properties visible) {
+		this.metadata = metadata;
+		this.visible = visible;
+	}
+
+	public ConfigurationMetadata getMetadata() {
+		return metadata;
+	}
+
+	public Properties getVisible() {
+		return visible;
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.metadata;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * An element of an application classpath that metadata is gathered from: a jar, a directory or a set of loose files.
+ * Elements are meant to be read once, by {@link MetadataScanner}, then closed.
+ */
+public abstract class ClasspathElement implements Closeable {
+
+	private final File file;
+
+	ClasspathElement(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Return an element for the given jar file or directory.
+	 */
+	public static ClasspathElement of(File file) {
+		return file.isDirectory() ? new DirectoryElement(file) : new JarElement(file);
+	}
+
+	/**
+	 * Return an element made of the given files, keyed by their path relative to the classpath root (such as
+	 * {@code META-INF/spring-configuration-metadata.json}). Such an element has no classes, hence no enum hints.
+	 * @param name a name for the element
+	 * @param entries the files, by path
+	 * @param applicationConfigurationFiles the application configuration files to look for function bindings in
+	 */
+	public static ClasspathElement of(String name, Map<String, File> entries, List<File> applicationConfigurationFiles) {
+		return of(name, entries, applicationConfigurationFiles, Collections.emptyList());
+	}
+
+	/**
+	 * Return an element made of the given files, whose classes are loaded from the given directories, such as the
+	 * class output directories of a build.
+	 * @param name a name for the element
+	 * @param entries the files, by path
+	 * @param applicationConfigurationFiles the application configuration files to look for function bindings in
+	 * @param classesDirectories the directories to load the classes of the element from, for enum hints
+	 */
+	public static ClasspathElement of(String name, Map<String, File> entries, List<File> applicationConfigurationFiles,
+			List<File> classesDirectories) {
+		return new FilesElement(name, entries, applicationConfigurationFiles, classesDirectories);
+	}
+
+	/**
+	 * Return the underlying file, or {@code null} if this element is made of loose files.
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Return a name for this element, suitable for logging.
+	 */
+	public String getName() {
+		return file.getPath();
+	}
+
+	/**
+	 * Open the entry at the given path, returning {@code null} if there is none.
+	 */
+	public abstract InputStream getInputStream(String path) throws IOException;
+
+	/**
+	 * Return the application configuration files ({@code .properties}, {@code .yml} or {@code .yaml}) at the root of
+	 * this element, where function bindings are declared. Only the application itself has such files, which is why
+	 * only directories are inspected.
+	 */
+	public List<File> getApplicationConfigurationFiles() {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Return the URLs to load the classes of this element from, empty if it has none.
+	 */
+	public URL[] getUrls() throws MalformedURLException {
+		return new URL[] { file.toURI().toURL() };
+	}
+
+	@Override
+	public void close() throws IOException {
+	}
+
+	@Override
+	public String toString() {
+		return getName();
+	}
+
+	private static class DirectoryElement extends ClasspathElement {
+
+		DirectoryElement(File directory) {
+			super(directory);
+		}
+
+		@Override
+		public InputStream getInputStream(String path) throws IOException {
+			File file = new File(getFile(), path);
+			return file.isFile() && file.canRead() ? new FileInputStream(file) : null;
+		}
+
+		@Override
+		public List<File> getApplicationConfigurationFiles() {
+			File[] files = getFile().listFiles(f -> f.isFile() && f.canRead() && (f.getName().endsWith(".properties")
+					|| f.getName().endsWith(".yml") || f.getName().endsWith(".yaml")));
+			if (files == null) {
+				return Collections.emptyList();
+			}
+			Arrays.sort(files);
+			return Arrays.asList(files);
+		}
+	}
+
+	private static class JarElement extends ClasspathElement {
+
+		private ZipFile zipFile;
+
+		JarElement(File jar) {
+			super(jar);
+		}
+
+		@Override
+		public InputStream getInputStream(String path) throws IOException {
+			if (zipFile == null) {
+				zipFile = new ZipFile(getFile());
+			}
+			ZipEntry entry = zipFile.getEntry(path);
+			return entry != null ? zipFile.getInputStream(entry) : null;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (zipFile != null) {
+				zipFile.close();
+				zipFile = null;
+			}
+		}
+	}
+
+	private static class FilesElement extends ClasspathElement {
+
+		private final String name;
+
+		private final Map<String, File> entries;
+
+		private final List<File> applicationConfigurationFiles;
+
+		private final List<File> classesDirectories;
+
+		FilesElement(String name, Map<String, File> entries, List<File> applicationConfigurationFiles,
+				List<File> classesDirectories) {
+			super(null);
+			this.name = name;
+			this.entries = new LinkedHashMap<>(entries);
+			this.applicationConfigurationFiles = new ArrayList<>(applicationConfigurationFiles);
+			this.classesDirectories = new ArrayList<>(classesDirectories);
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public InputStream getInputStream(String path) throws IOException {
+			File file = entries.get(path);
+			return file != null && file.isFile() ? new FileInputStream(file) : null;
+		}
+
+		@Override
+		public List<File> getApplicationConfigurationFiles() {
+			return Collections.unmodifiableList(applicationConfigurationFiles);
+		}
+
+		@Override
+		public URL[] getUrls() throws MalformedURLException {
+			URL[] urls = new URL[classesDirectories.size()];
+			for (int i = 0; i < urls.length; i++) {
+				urls[i] = classesDirectories.get(i).toURI().toURL();
+			}
+			return urls;
+		}
+	}
+}
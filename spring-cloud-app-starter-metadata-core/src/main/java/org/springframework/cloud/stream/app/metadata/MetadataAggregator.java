@@ -0,0 +1,170 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.metadata;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+import org.springframework.boot.configurationprocessor.metadata.ConfigurationMetadata;
+import org.springframework.boot.configurationprocessor.metadata.ItemHint;
+import org.springframework.boot.configurationprocessor.metadata.ItemMetadata;
+import org.springframework.util.StringUtils;
+
+/**
+ * Merges the metadata scanned from all the classpath elements of an application, in classpath order, and filters
+ * the result.
+ */
+public class MetadataAggregator {
+
+	private final Consumer<String> warnings;
+
+	/**
+	 * Create an aggregator.
+	 * @param warnings where to report deprecated or invalid metadata
+	 */
+	public MetadataAggregator(Consumer<String> warnings) {
+		this.warnings = warnings;
+	}
+
+	public AggregatedMetadata aggregate(List<ScannedMetadata> scanned) {
+		ConfigurationMetadata metadata = new ConfigurationMetadata();
+		Properties visible = new Properties();
+		List<String> inboundPorts = new ArrayList<>();
+		List<String> outboundPorts = new ArrayList<>();
+		for (ScannedMetadata element : scanned) {
+			if (element.getMetadata() != null) {
+				metadata.merge(element.getMetadata());
+			}
+			if (element.getVisible() != null) {
+				if (!MetadataPaths.VISIBLE_PROPERTIES_PATH.equals(element.getVisiblePath())) {
+					warnings.accept("Use of " + element.getVisiblePath() + " is deprecated." +
+							" Please use " + MetadataPaths.VISIBLE_PROPERTIES_PATH);
+				}
+				visible = mergeVisible(visible, element.getVisible());
+			}
+			inboundPorts.addAll(element.getInboundPorts());
+			outboundPorts.addAll(element.getOutboundPorts());
+		}
+
+		// Replace all escaped double quotes by a single one.
+		for (ItemMetadata item : metadata.getItems()) {
+			if (StringUtils.hasLength(item.getDescription()) && item.getDescription().contains("\"")) {
+				item.setDescription(item.getDescription().replaceAll("\"", "'"));
+			}
+		}
+		if (!inboundPorts.isEmpty()) {
+			visible.put(MetadataPaths.CONFIGURATION_PROPERTIES_INBOUND_PORTS,
+					StringUtils.collectionToCommaDelimitedString(inboundPorts));
+		}
+		if (!outboundPorts.isEmpty()) {
+			visible.put(MetadataPaths.CONFIGURATION_PROPERTIES_OUTBOUND_PORTS,
+					StringUtils.collectionToCommaDelimitedString(outboundPorts));
+		}
+		return new AggregatedMetadata(metadata, visible);
+	}
+
+	/**
+	 * Merge visible properties, returning the result. Properties without any of the required keys are ignored,
+	 * otherwise they take precedence over the current ones, except for classes and names which are combined.
+	 */
+	public Properties mergeVisible(Properties visible, Properties properties) {
+		if (!properties.containsKey(MetadataPaths.CONFIGURATION_PROPERTIES_CLASSES)
+				&& !properties.containsKey(MetadataPaths.CONFIGURATION_PROPERTIES_NAMES)) {
+			warnings.accept(String.format("Visible properties does not contain any required keys: %s",
+					StringUtils.arrayToCommaDelimitedString(new String[] {
+							MetadataPaths.CONFIGURATION_PROPERTIES_CLASSES,
+							MetadataPaths.CONFIGURATION_PROPERTIES_NAMES
+					})));
+			return visible;
+		}
+		Properties merged = new Properties();
+		merged.putAll(properties);
+		mergeCommaDelimitedValue(visible, merged, MetadataPaths.CONFIGURATION_PROPERTIES_CLASSES);
+		mergeCommaDelimitedValue(visible, merged, MetadataPaths.CONFIGURATION_PROPERTIES_NAMES);
+		return merged;
+	}
+
+	private void mergeCommaDelimitedValue(Properties currentProperties, Properties newProperties, String key) {
+		if (currentProperties.containsKey(key) || newProperties.containsKey(key)) {
+			Collection<String> values = StringUtils.commaDelimitedListToSet(currentProperties.getProperty(key));
+			values.addAll(StringUtils.commaDelimitedListToSet(newProperties.getProperty(key)));
+			newProperties.setProperty(key, StringUtils.collectionToCommaDelimitedString(values));
+		}
+	}
+
+	/**
+	 * Return a filter made of the given one, if any, and of the classes and names of the given visible properties.
+	 */
+	public static MetadataFilter visibleFilter(MetadataFilter metadataFilter, Properties visible) {
+		MetadataFilter result = new MetadataFilter();
+		if (metadataFilter != null) {
+			addAll(result.getNames(), metadataFilter.getNames());
+			addAll(result.getSourceTypes(), metadataFilter.getSourceTypes());
+		}
+		addAll(result.getSourceTypes(), StringUtils.commaDelimitedListToSet(
+				visible.getProperty(MetadataPaths.CONFIGURATION_PROPERTIES_CLASSES)));
+		addAll(result.getNames(), StringUtils.commaDelimitedListToSet(
+				visible.getProperty(MetadataPaths.CONFIGURATION_PROPERTIES_NAMES)));
+		return result;
+	}
+
+	private static void addAll(List<String> target, Collection<String> values) {
+		if (values == null) {
+			return;
+		}
+		for (String value : values) {
+			value = value.trim();
+			if (!value.isEmpty() && !target.contains(value)) {
+				target.add(value);
+			}
+		}
+	}
+
+	/**
+	 * Return the items (and their hints) of the given metadata whose name or source type is accepted by the filter.
+	 * An empty filter accepts everything.
+	 */
+	public static ConfigurationMetadata filter(ConfigurationMetadata metadata, MetadataFilter metadataFilter) {
+		Collection<String> names = metadataFilter != null && metadataFilter.getNames() != null ?
+				metadataFilter.getNames() : Collections.emptyList();
+		Collection<String> sourceTypes = metadataFilter != null && metadataFilter.getSourceTypes() != null ?
+				metadataFilter.getSourceTypes() : Collections.emptyList();
+		if (names.isEmpty() && sourceTypes.isEmpty()) {
+			return metadata;
+		}
+		ConfigurationMetadata filtered = new ConfigurationMetadata();
+		List<String> visibleNames = new ArrayList<>();
+		for (ItemMetadata item : metadata.getItems()) {
+			if ((StringUtils.hasText(item.getSourceType()) && sourceTypes.contains(item.getSourceType().trim()))
+					|| (StringUtils.hasText(item.getName()) && names.contains(item.getName().trim()))) {
+				filtered.add(item);
+				visibleNames.add(item.getName());
+			}
+		}
+		// copy the hints only for the visible metadata.
+		for (ItemHint itemHint : metadata.getHints()) {
+			if (itemHint != null && visibleNames.contains(itemHint.getName())) {
+				filtered.add(itemHint);
+			}
+		}
+		return filtered;
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.metadata;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Names and source types of the properties to keep in filtered metadata.
+ */
+public class MetadataFilter {
+
+	private List<String> names = new ArrayList<>();
+
+	private List<String> sourceTypes = new ArrayList<>();
+
+	public List<String> getNames() {
+		return names;
+	}
+
+	public void setNames(List<String> names) {
+		this.names = names;
+	}
+
+	public List<String> getSourceTypes() {
+		return sourceTypes;
+	}
+
+	public void setSourceTypes(List<String> sourceTypes) {
+		this.sourceTypes = sourceTypes;
+	}
+
+	@Override
+	public String toString() {
+		return "MetadataFilter{" +
+				"name=" + names +
+				", sourceType=" + sourceTypes +
+				'}';
+	}
+}
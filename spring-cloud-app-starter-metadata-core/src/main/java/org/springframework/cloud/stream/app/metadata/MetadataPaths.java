@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.metadata;
+
+/**
+ * Names of the metadata files and of the properties they contain.
+ */
+public final class MetadataPaths {
+
+	public static final String METADATA_PATH = "META-INF/spring-configuration-metadata.json";
+
+	public static final String VISIBLE_PROPERTIES_PATH = "META-INF/dataflow-configuration-metadata.properties";
+
+	public static final String DEPRECATED_WHITELIST_PATH = "META-INF/dataflow-configuration-metadata-whitelist.properties";
+
+	public static final String DEPRECATED_BACKUP_WHITELIST_PATH = "META-INF/spring-configuration-metadata-whitelist.properties";
+
+	/**
+	 * The paths visible properties are read from, by order of precedence.
+	 */
+	public static final String[] VISIBLE_PROPERTIES_PATHS = { VISIBLE_PROPERTIES_PATH, DEPRECATED_WHITELIST_PATH,
+			DEPRECATED_BACKUP_WHITELIST_PATH };
+
+	public static final String ENCODED_METADATA_PATH = "META-INF/spring-configuration-metadata-encoded.properties";
+
+	public static final String PORT_MAPPING_PATH = "META-INF/dataflow-configuration-port-mapping.properties";
+
+	public static final String ENCODED_METADATA_PROPERTY = "org.springframework.cloud.dataflow.spring.configuration.metadata.json";
+
+	public static final String CONFIGURATION_PROPERTIES_CLASSES = "configuration-properties.classes";
+
+	public static final String CONFIGURATION_PROPERTIES_NAMES = "configuration-properties.names";
+
+	public static final String CONFIGURATION_PROPERTIES_INBOUND_PORTS = "configuration-properties.inbound-ports";
+
+	public static final String CONFIGURATION_PROPERTIES_OUTBOUND_PORTS = "configuration-properties.outbound-ports";
+
+	public static final String SPRING_CLOUD_FUNCTION_DEFINITION = "spring.cloud.function.definition";
+
+	public static final String SPRING_CLOUD_STREAM_FUNCTION_DEFINITION = "spring.cloud.stream.function.definition";
+
+	public static final String SPRING_CLOUD_STREAM_FUNCTION_BINDINGS = "spring.cloud.stream.function.bindings";
+
+	private MetadataPaths() {
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.metadata;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.boot.configurationprocessor.metadata.ConfigurationMetadata;
+import org.springframework.boot.configurationprocessor.metadata.ItemHint;
+import org.springframework.boot.configurationprocessor.metadata.ItemMetadata;
+import org.springframework.boot.configurationprocessor.metadata.JsonMarshaller;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Reads everything metadata related from a {@link ClasspathElement} in a single pass: configuration metadata (with
+ * value hints for enum typed properties), visible properties and function binding ports.
+ *
+ * <p>Scanning is the expensive part of metadata aggregation. Build tools can avoid it for elements that did not
+ * change by providing a {@link Cache}.</p>
+ */
+public class MetadataScanner {
+
+	private final ClassLoader parentClassLoader;
+
+	private final Cache cache;
+
+	/**
+	 * Create a scanner that doesn't cache anything.
+	 * @param parentClassLoader the parent of the class loaders used to resolve enum types
+	 */
+	public MetadataScanner(ClassLoader parentClassLoader) {
+		this(parentClassLoader, (element, scanner) -> scanner.scanElement(element));
+	}
+
+	public MetadataScanner(ClassLoader parentClassLoader, Cache cache) {
+		this.parentClassLoader = parentClassLoader;
+		this.cache = cache;
+	}
+
+	/**
+	 * Scan the given elements, in order, closing them once scanned.
+	 */
+	public List<ScannedMetadata> scan(List<? extends ClasspathElement> elements) throws IOException {
+		List<ScannedMetadata> result = new ArrayList<>(elements.size());
+		for (ClasspathElement element : elements) {
+			try (ClasspathElement closeable = element) {
+				result.add(cache.get(closeable, this));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Scan the given element, bypassing the cache.
+	 */
+	public ScannedMetadata scanElement(ClasspathElement element) throws IOException {
+		ConfigurationMetadata metadata = null;
+		try (InputStream is = element.getInputStream(MetadataPaths.METADATA_PATH)) {
+			if (is != null) {
+				metadata = new JsonMarshaller().read(is);
+			}
+		}
+		catch (IOException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			throw new IOException("Error reading metadata from " + element, e);
+		}
+		URL[] urls = element.getUrls();
+		if (metadata != null && urls.length > 0) {
+			try (URLClassLoader classLoader = new URLClassLoader(urls, parentClassLoader)) {
+				addEnumHints(metadata, classLoader);
+			}
+		}
+
+		Properties visible = null;
+		String visiblePath = null;
+		for (String path : MetadataPaths.VISIBLE_PROPERTIES_PATHS) {
+			try (InputStream is = element.getInputStream(path)) {
+				if (is != null) {
+					visible = new Properties();
+					visible.load(is);
+					visiblePath = path;
+					break;
+				}
+			}
+		}
+
+		List<String> inboundPorts = new ArrayList<>();
+		List<String> outboundPorts = new ArrayList<>();
+		for (File file : element.getApplicationConfigurationFiles()) {
+			addPorts(load(file), inboundPorts, outboundPorts);
+		}
+		return new ScannedMetadata(metadata, visible, visiblePath, inboundPorts, outboundPorts);
+	}
+
+	/**
+	 * Add a value hint to every property of the given metadata whose type is an enum visible from the class loader.
+	 */
+	public static void addEnumHints(ConfigurationMetadata metadata, ClassLoader classLoader) {
+		Map<String, ItemHint> itemHints = new LinkedHashMap<>();
+		for (ItemMetadata property : metadata.getItems()) {
+			if (property.isOfItemType(ItemMetadata.ItemType.PROPERTY) && property.getType() != null
+					&& ClassUtils.isPresent(property.getType(), classLoader)) {
+				Class<?> clazz = ClassUtils.resolveClassName(property.getType(), classLoader);
+				if (clazz.isEnum()) {
+					List<ItemHint.ValueHint> valueHints = new ArrayList<>();
+					for (Object o : clazz.getEnumConstants()) {
+						valueHints.add(new ItemHint.ValueHint(o, null));
+					}
+					itemHints.put(property.getType(), new ItemHint(property.getName(), valueHints,
+							Collections.singletonList(new ItemHint.ValueProvider(property.getType(), null))));
+				}
+			}
+		}
+		for (ItemHint itemHint : itemHints.values()) {
+			metadata.add(itemHint);
+		}
+	}
+
+	private static void addPorts(Properties properties, List<String> inboundPorts, List<String> outboundPorts) {
+		String functionDefinitions = properties.getProperty(MetadataPaths.SPRING_CLOUD_FUNCTION_DEFINITION,
+				properties.getProperty(MetadataPaths.SPRING_CLOUD_STREAM_FUNCTION_DEFINITION));
+		for (String functionDefinition : StringUtils.delimitedListToStringArray(functionDefinitions, ";")) {
+			String prefix = MetadataPaths.SPRING_CLOUD_STREAM_FUNCTION_BINDINGS + "." + functionDefinition;
+			for (String key : properties.stringPropertyNames()) {
+				if (key.startsWith(prefix + "-in-")) {
+					inboundPorts.add(properties.getProperty(key));
+				}
+				if (key.startsWith(prefix + "-out-")) {
+					outboundPorts.add(properties.getProperty(key));
+				}
+			}
+		}
+	}
+
+	private static Properties load(File file) throws IOException {
+		if (file.getName().endsWith(".yml") || file.getName().endsWith(".yaml")) {
+			YamlPropertiesFactoryBean yamlPropertiesFactoryBean = new YamlPropertiesFactoryBean();
+			yamlPropertiesFactoryBean.setResources(new FileSystemResource(file));
+			return yamlPropertiesFactoryBean.getObject();
+		}
+		Properties properties = new Properties();
+		try (InputStream is = new FileInputStream(file)) {
+			properties.load(is);
+		}
+		return properties;
+	}
+
+	/**
+	 * A hook to reuse the result of previous scans.
+	 */
+	@FunctionalInterface
+	public interface Cache {
+
+		/**
+		 * Return the scanned metadata of the given element, either from the cache or by calling
+		 * {@link MetadataScanner#scanElement(ClasspathElement)}.
+		 */
+		ScannedMetadata get(ClasspathElement element, MetadataScanner scanner) throws IOException;
+	}
+}
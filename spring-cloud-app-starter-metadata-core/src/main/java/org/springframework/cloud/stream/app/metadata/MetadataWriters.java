@@ -0,0 +1,175 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.metadata;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.text.StringEscapeUtils;
+
+import org.springframework.boot.configurationprocessor.metadata.ConfigurationMetadata;
+import org.springframework.boot.configurationprocessor.metadata.ItemHint;
+import org.springframework.boot.configurationprocessor.metadata.ItemMetadata;
+import org.springframework.boot.configurationprocessor.metadata.JsonMarshaller;
+
+/**
+ * Writes aggregated metadata, either as a metadata-only jar or as files under a classpath root.
+ */
+public final class MetadataWriters {
+
+	private static final String VISIBLE_COMMENT = "Describes visible properties for this app";
+
+	private static final String DEPRECATED_VISIBLE_COMMENT = "DEPRECATED: Describes visible properties for this app";
+
+	private static final Comparator<String> NULLS_FIRST = Comparator.nullsFirst(Comparator.naturalOrder());
+
+	private static final Comparator<ItemMetadata> ITEM_ORDER = Comparator.comparing(ItemMetadata::getName, NULLS_FIRST)
+			.thenComparing(ItemMetadata::getSourceType, NULLS_FIRST)
+			.thenComparing(ItemMetadata::getType, NULLS_FIRST)
+			.thenComparing(ItemMetadata::getDescription, NULLS_FIRST);
+
+	private MetadataWriters() {
+	}
+
+	/**
+	 * Write the metadata-only jar: configuration metadata and visible properties, under all their names.
+	 */
+	public static void writeMetadataJar(AggregatedMetadata aggregated, File jar) throws IOException {
+		try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(jar))) {
+			jos.putNextEntry(new ZipEntry(MetadataPaths.METADATA_PATH));
+			new JsonMarshaller().write(aggregated.getMetadata(), jos);
+			for (String path : MetadataPaths.VISIBLE_PROPERTIES_PATHS) {
+				jos.putNextEntry(new ZipEntry(path));
+				store(aggregated.getVisible(), jos, comment(path));
+			}
+		}
+	}
+
+	/**
+	 * Write the same files as {@link #writeMetadataJar(AggregatedMetadata, File)}, under the given classpath root.
+	 */
+	public static void writeMetadataFiles(AggregatedMetadata aggregated, File root) throws IOException {
+		try (OutputStream os = new FileOutputStream(file(root, MetadataPaths.METADATA_PATH))) {
+			new JsonMarshaller().write(aggregated.getMetadata(), os);
+		}
+		for (String path : MetadataPaths.VISIBLE_PROPERTIES_PATHS) {
+			try (OutputStream os = new FileOutputStream(file(root, path))) {
+				store(aggregated.getVisible(), os, comment(path));
+			}
+		}
+	}
+
+	/**
+	 * Write the inbound and outbound ports of the given visible properties, under the given classpath root.
+	 */
+	public static void writePortMapping(Properties visible, File root) throws IOException {
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(file(root, MetadataPaths.PORT_MAPPING_PATH)),
+				StandardCharsets.UTF_8)) {
+			for (String key : new String[] { MetadataPaths.CONFIGURATION_PROPERTIES_INBOUND_PORTS,
+					MetadataPaths.CONFIGURATION_PROPERTIES_OUTBOUND_PORTS }) {
+				if (visible.containsKey(key)) {
+					writer.write(key + "=" + visible.getProperty(key));
+					writer.write(System.lineSeparator());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Write the given (typically filtered) metadata as a single json-escaped property, under the given classpath root.
+	 * Items are sorted first, so that the same metadata, whatever the order it was aggregated in, always gives the
+	 * same bytes: the property ends up in a container image label, which must not change between builds.
+	 */
+	public static void writeEncodedMetadata(ConfigurationMetadata metadata, File root) throws IOException {
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(file(root, MetadataPaths.ENCODED_METADATA_PATH)),
+				StandardCharsets.UTF_8)) {
+			writer.write(MetadataPaths.ENCODED_METADATA_PROPERTY + "=" + StringEscapeUtils.escapeJson(toJson(metadata)));
+		}
+	}
+
+	private static String toJson(ConfigurationMetadata metadata) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		new JsonMarshaller().write(sorted(metadata), baos);
+		String json = baos.toString(StandardCharsets.UTF_8.name());
+
+		// Hack to workaround the https://github.com/mojohaus/properties-maven-plugin/issues/27 and
+		// https://github.com/mojohaus/properties-maven-plugin/pull/38 properties-maven-plugin issues.
+		return json.replaceAll("\\$\\{", "{");
+	}
+
+	/**
+	 * Copy the given metadata, adding items in a total order. The marshaller only sorts by name and keeps the
+	 * insertion order of the items sharing a name, such as the same property declared by different source types.
+	 */
+	private static ConfigurationMetadata sorted(ConfigurationMetadata metadata) {
+		List<ItemMetadata> items = new ArrayList<>(metadata.getItems());
+		items.sort(ITEM_ORDER);
+		List<ItemHint> hints = new ArrayList<>(metadata.getHints());
+		hints.sort(Comparator.comparing(ItemHint::getName, NULLS_FIRST));
+		ConfigurationMetadata sorted = new ConfigurationMetadata();
+		items.forEach(sorted::add);
+		hints.forEach(sorted::add);
+		return sorted;
+	}
+
+	/**
+	 * Store the given properties like {@link Properties#store(OutputStream, String)} does, but with sorted keys and
+	 * without the date line, so that the same properties always give the same bytes: build tools cache their tasks
+	 * by the content of these files.
+	 */
+	static void store(Properties properties, OutputStream os, String comment) throws IOException {
+		ByteArrayOutputStream stored = new ByteArrayOutputStream();
+		properties.store(stored, null);
+		List<String> entries = new ArrayList<>();
+		for (String line : stored.toString(StandardCharsets.ISO_8859_1.name()).split("\\r?\\n")) {
+			if (!line.isEmpty() && !line.startsWith("#")) {
+				entries.add(line);
+			}
+		}
+		entries.sort(null);
+		if (comment != null) {
+			entries.add(0, "#" + comment);
+		}
+		StringBuilder sb = new StringBuilder();
+		for (String entry : entries) {
+			sb.append(entry).append('\n');
+		}
+		os.write(sb.toString().getBytes(StandardCharsets.ISO_8859_1));
+	}
+
+	private static String comment(String path) {
+		return MetadataPaths.VISIBLE_PROPERTIES_PATH.equals(path) ? VISIBLE_COMMENT : DEPRECATED_VISIBLE_COMMENT;
+	}
+
+	private static File file(File root, String path) {
+		File file = new File(root, path);
+		file.getParentFile().mkdirs();
+		return file;
+	}
+}
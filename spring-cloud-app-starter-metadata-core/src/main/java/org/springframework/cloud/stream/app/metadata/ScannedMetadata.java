@@ -0,0 +1,200 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.metadata;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.springframework.boot.configurationprocessor.metadata.ConfigurationMetadata;
+import org.springframework.boot.configurationprocessor.metadata.JsonMarshaller;
+import org.springframework.util.StringUtils;
+
+/**
+ * What {@link MetadataScanner} found in a single {@link ClasspathElement}: its configuration metadata (enum hints
+ * included), its visible properties and the ports of the functions it binds.
+ *
+ * <p>Scanned metadata can be written to and read back from a directory, so that build tools can cache it per
+ * classpath element.</p>
+ */
+public final class ScannedMetadata {
+
+	private static final String PORTS_FILE = "ports.properties";
+
+	private final ConfigurationMetadata metadata;
+
+	private final Properties visible;
+
+	private final String visiblePath;
+
+	private final List<String> inboundPorts;
+
+	private final List<String> outboundPorts;
+
+	ScannedMetadata(ConfigurationMetadata metadata, Properties visible, String visiblePath,
+			List<String> inboundPorts, List<String> outboundPorts) {
+		this.metadata = metadata;
+		this.visible = visible;
+		this.visiblePath = visiblePath;
+		this.inboundPorts = inboundPorts;
+		this.outboundPorts = outboundPorts;
+	}
+
+	/**
+	 * Return the configuration metadata, or {@code null} if there was none.
+	 */
+	public ConfigurationMetadata getMetadata() {
+		return metadata;
+	}
+
+	/**
+	 * Return the visible properties, or {@code null} if there were none.
+	 */
+	public Properties getVisible() {
+		return visible;
+	}
+
+	/**
+	 * Return the path the visible properties were read from, which may be a deprecated one, or {@code null}.
+	 */
+	public String getVisiblePath() {
+		return visiblePath;
+	}
+
+	public List<String> getInboundPorts() {
+		return Collections.unmodifiableList(inboundPorts);
+	}
+
+	public List<String> getOutboundPorts() {
+		return Collections.unmodifiableList(outboundPorts);
+	}
+
+	/**
+	 * Return whether nothing was found.
+	 */
+	public boolean isEmpty() {
+		return metadata == null && visible == null && inboundPorts.isEmpty() && outboundPorts.isEmpty();
+	}
+
+	/**
+	 * Return a deep copy of this scanned metadata. Aggregation merges and rewrites metadata items in place, so
+	 * scanned metadata reused across aggregations must be copied for each of them.
+	 */
+	public ScannedMetadata copy() throws IOException {
+		ConfigurationMetadata metadataCopy = null;
+		if (metadata != null) {
+			ByteArrayOutputStream json = new ByteArrayOutputStream();
+			try {
+				new JsonMarshaller().write(metadata, json);
+				metadataCopy = new JsonMarshaller().read(new ByteArrayInputStream(json.toByteArray()));
+			}
+			catch (IOException e) {
+				throw e;
+			}
+			catch (Exception e) {
+				throw new IOException("Error copying metadata", e);
+			}
+		}
+		Properties visibleCopy = null;
+		if (visible != null) {
+			visibleCopy = new Properties();
+			visibleCopy.putAll(visible);
+		}
+		return new ScannedMetadata(metadataCopy, visibleCopy, visiblePath, new ArrayList<>(inboundPorts),
+				new ArrayList<>(outboundPorts));
+	}
+
+	/**
+	 * Write this scanned metadata to the given directory, using the standard file names.
+	 */
+	public void writeTo(File directory) throws IOException {
+		File metaInf = new File(directory, "META-INF");
+		metaInf.mkdirs();
+		if (metadata != null) {
+			try (OutputStream os = new FileOutputStream(new File(directory, MetadataPaths.METADATA_PATH))) {
+				new JsonMarshaller().write(metadata, os);
+			}
+		}
+		if (visible != null) {
+			try (OutputStream os = new FileOutputStream(new File(directory, MetadataPaths.VISIBLE_PROPERTIES_PATH))) {
+				MetadataWriters.store(visible, os, null);
+			}
+		}
+		if (!inboundPorts.isEmpty() || !outboundPorts.isEmpty()) {
+			Properties ports = new Properties();
+			ports.setProperty(MetadataPaths.CONFIGURATION_PROPERTIES_INBOUND_PORTS,
+					StringUtils.collectionToCommaDelimitedString(inboundPorts));
+			ports.setProperty(MetadataPaths.CONFIGURATION_PROPERTIES_OUTBOUND_PORTS,
+					StringUtils.collectionToCommaDelimitedString(outboundPorts));
+			try (OutputStream os = new FileOutputStream(new File(directory, PORTS_FILE))) {
+				MetadataWriters.store(ports, os, null);
+			}
+		}
+	}
+
+	/**
+	 * Read scanned metadata previously written to the given directory with {@link #writeTo(File)}.
+	 */
+	public static ScannedMetadata readFrom(File directory) throws IOException {
+		ConfigurationMetadata metadata = null;
+		File metadataFile = new File(directory, MetadataPaths.METADATA_PATH);
+		if (metadataFile.isFile()) {
+			try (InputStream is = new FileInputStream(metadataFile)) {
+				metadata = new JsonMarshaller().read(is);
+			}
+			catch (IOException e) {
+				throw e;
+			}
+			catch (Exception e) {
+				throw new IOException("Error reading " + metadataFile, e);
+			}
+		}
+		Properties visible = load(new File(directory, MetadataPaths.VISIBLE_PROPERTIES_PATH));
+		Properties ports = load(new File(directory, PORTS_FILE));
+		List<String> inboundPorts = new ArrayList<>();
+		List<String> outboundPorts = new ArrayList<>();
+		if (ports != null) {
+			inboundPorts.addAll(Arrays.asList(StringUtils.commaDelimitedListToStringArray(
+					ports.getProperty(MetadataPaths.CONFIGURATION_PROPERTIES_INBOUND_PORTS))));
+			outboundPorts.addAll(Arrays.asList(StringUtils.commaDelimitedListToStringArray(
+					ports.getProperty(MetadataPaths.CONFIGURATION_PROPERTIES_OUTBOUND_PORTS))));
+		}
+		return new ScannedMetadata(metadata, visible, visible != null ? MetadataPaths.VISIBLE_PROPERTIES_PATH : null,
+				inboundPorts, outboundPorts);
+	}
+
+	private static Properties load(File file) throws IOException {
+		if (!file.isFile()) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream is = new FileInputStream(file)) {
+			properties.load(is);
+		}
+		return properties;
+	}
+}
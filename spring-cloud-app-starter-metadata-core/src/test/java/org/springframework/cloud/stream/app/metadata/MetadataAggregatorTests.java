@@ -0,0 +1,215 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.metadata;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.boot.configurationprocessor.metadata.ConfigurationMetadata;
+import org.springframework.boot.configurationprocessor.metadata.ItemMetadata;
+import org.springframework.boot.configurationprocessor.metadata.JsonMarshaller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MetadataAggregatorTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final List<String> warnings = new ArrayList<>();
+
+	private final MetadataAggregator aggregator = new MetadataAggregator(warnings::add);
+
+	@Test
+	public void mergeCombinesClassesAndNames() {
+		Properties merged = aggregator.mergeVisible(visible("a.A", "x"), visible("b.B", "y"));
+
+		assertThat(merged.getProperty(MetadataPaths.CONFIGURATION_PROPERTIES_CLASSES)).isEqualTo("a.A,b.B");
+		assertThat(merged.getProperty(MetadataPaths.CONFIGURATION_PROPERTIES_NAMES)).isEqualTo("x,y");
+		assertThat(warnings).isEmpty();
+	}
+
+	@Test
+	public void mergeIgnoresPropertiesWithoutRequiredKeys() {
+		Properties current = visible("a.A", "x");
+		Properties other = new Properties();
+		other.setProperty("foo", "bar");
+
+		assertThat(aggregator.mergeVisible(current, other)).isSameAs(current);
+		assertThat(warnings).hasSize(1);
+	}
+
+	@Test
+	public void aggregateInClasspathOrder() throws IOException {
+		ScannedMetadata app = new ScannedMetadata(metadata("app.value", "app.AppProperties"), visible("app.AppProperties", null),
+				MetadataPaths.VISIBLE_PROPERTIES_PATH, Collections.singletonList("input"), Collections.singletonList("output"));
+		ScannedMetadata dependency = new ScannedMetadata(metadata("dep.value", "dep.DepProperties"), visible("dep.DepProperties", null),
+				MetadataPaths.DEPRECATED_WHITELIST_PATH, Collections.emptyList(), Collections.emptyList());
+
+		AggregatedMetadata aggregated = aggregator.aggregate(Arrays.asList(app, dependency));
+
+		assertThat(aggregated.getMetadata().getItems()).extracting(ItemMetadata::getName).containsExactly("app.value", "dep.value");
+		assertThat(aggregated.getVisible().getProperty(MetadataPaths.CONFIGURATION_PROPERTIES_CLASSES))
+				.isEqualTo("app.AppProperties,dep.DepProperties");
+		assertThat(aggregated.getVisible().getProperty(MetadataPaths.CONFIGURATION_PROPERTIES_INBOUND_PORTS)).isEqualTo("input");
+		assertThat(aggregated.getVisible().getProperty(MetadataPaths.CONFIGURATION_PROPERTIES_OUTBOUND_PORTS)).isEqualTo("output");
+		assertThat(warnings).hasSize(1);
+	}
+
+	@Test
+	public void filterBySourceTypeOrName() {
+		ConfigurationMetadata metadata = metadata("app.value", "app.AppProperties");
+		metadata.merge(metadata("dep.value", "dep.DepProperties"));
+		metadata.merge(metadata("other.value", "other.OtherProperties"));
+
+		MetadataFilter filter = MetadataAggregator.visibleFilter(null, visible("app.AppProperties", "dep.value"));
+
+		assertThat(MetadataAggregator.filter(metadata, filter).getItems()).extracting(ItemMetadata::getName)
+				.containsExactly("app.value", "dep.value");
+		assertThat(MetadataAggregator.filter(metadata, new MetadataFilter())).isSameAs(metadata);
+	}
+
+	@Test
+	public void scanDirectory() throws IOException {
+		File root = temporaryFolder.newFolder();
+		new File(root, "META-INF").mkdirs();
+		try (OutputStream os = new FileOutputStream(new File(root, MetadataPaths.METADATA_PATH))) {
+			new JsonMarshaller().write(metadata("app.value", "app.AppProperties"), os);
+		}
+		store(visible("app.AppProperties", null), new File(root, MetadataPaths.VISIBLE_PROPERTIES_PATH));
+		Properties application = new Properties();
+		application.setProperty(MetadataPaths.SPRING_CLOUD_FUNCTION_DEFINITION, "upper");
+		application.setProperty(MetadataPaths.SPRING_CLOUD_STREAM_FUNCTION_BINDINGS + ".upper-in-0", "input");
+		application.setProperty(MetadataPaths.SPRING_CLOUD_STREAM_FUNCTION_BINDINGS + ".upper-out-0", "output");
+		store(application, new File(root, "application.properties"));
+
+		ScannedMetadata scanned = new MetadataScanner(getClass().getClassLoader())
+				.scan(Collections.singletonList(ClasspathElement.of(root))).get(0);
+
+		assertThat(scanned.getMetadata().getItems()).hasSize(1);
+		assertThat(scanned.getVisiblePath()).isEqualTo(MetadataPaths.VISIBLE_PROPERTIES_PATH);
+		assertThat(scanned.getInboundPorts()).containsExactly("input");
+		assertThat(scanned.getOutboundPorts()).containsExactly("output");
+
+		File cached = temporaryFolder.newFolder();
+		scanned.writeTo(cached);
+		ScannedMetadata read = ScannedMetadata.readFrom(cached);
+		assertThat(read.getMetadata().getItems()).hasSize(1);
+		assertThat(read.getVisible()).isEqualTo(scanned.getVisible());
+		assertThat(read.getInboundPorts()).containsExactly("input");
+		assertThat(read.getOutboundPorts()).containsExactly("output");
+	}
+
+	@Test
+	public void aggregateDoesNotChangeCopies() throws IOException {
+		ScannedMetadata dependency = new ScannedMetadata(metadata("dep.value", "dep.DepProperties"),
+				visible("dep.DepProperties", null), MetadataPaths.VISIBLE_PROPERTIES_PATH,
+				Collections.emptyList(), Collections.emptyList());
+		ConfigurationMetadata overriding = new ConfigurationMetadata();
+		overriding.add(ItemMetadata.newProperty(null, "dep.value", String.class.getName(), "dep.DepProperties", null,
+				"Overridden \"value\".", null, null));
+
+		aggregator.aggregate(Arrays.asList(dependency.copy(), new ScannedMetadata(overriding, null, null,
+				Collections.emptyList(), Collections.emptyList())));
+
+		ScannedMetadata copy = dependency.copy();
+		assertThat(copy.getMetadata().getItems()).extracting(ItemMetadata::getDescription).containsNull();
+		assertThat(copy.getVisible()).isEqualTo(dependency.getVisible()).isNotSameAs(dependency.getVisible());
+		assertThat(dependency.getMetadata().getItems()).extracting(ItemMetadata::getDescription).containsNull();
+	}
+
+	@Test
+	public void encodedMetadataDoesNotDependOnAggregationOrder() throws IOException {
+		ScannedMetadata first = new ScannedMetadata(metadata("shared.value", "a.FirstProperties"), null, null,
+				Collections.emptyList(), Collections.emptyList());
+		first.getMetadata().add(ItemMetadata.newProperty(null, "first.value", String.class.getName(),
+				"a.FirstProperties", null, "First.", null, null));
+		ScannedMetadata second = new ScannedMetadata(metadata("shared.value", "b.SecondProperties"), null, null,
+				Collections.emptyList(), Collections.emptyList());
+
+		File forward = temporaryFolder.newFolder();
+		MetadataWriters.writeEncodedMetadata(
+				aggregator.aggregate(Arrays.asList(first.copy(), second.copy())).getMetadata(), forward);
+		File backward = temporaryFolder.newFolder();
+		MetadataWriters.writeEncodedMetadata(
+				aggregator.aggregate(Arrays.asList(second.copy(), first.copy())).getMetadata(), backward);
+
+		assertThat(Files.readAllBytes(new File(backward, MetadataPaths.ENCODED_METADATA_PATH).toPath()))
+				.isEqualTo(Files.readAllBytes(new File(forward, MetadataPaths.ENCODED_METADATA_PATH).toPath()));
+	}
+
+	@Test
+	public void scannedMetadataIsWrittenDeterministically() throws IOException {
+		Properties forwardVisible = visible("a.A,b.B", "x");
+		Properties backwardVisible = new Properties();
+		backwardVisible.setProperty(MetadataPaths.CONFIGURATION_PROPERTIES_NAMES, "x");
+		backwardVisible.setProperty(MetadataPaths.CONFIGURATION_PROPERTIES_CLASSES, "a.A,b.B");
+
+		File forward = temporaryFolder.newFolder();
+		new ScannedMetadata(metadata("app.value", "app.AppProperties"), forwardVisible,
+				MetadataPaths.VISIBLE_PROPERTIES_PATH, Collections.singletonList("input"), Collections.emptyList())
+				.writeTo(forward);
+		File backward = temporaryFolder.newFolder();
+		new ScannedMetadata(metadata("app.value", "app.AppProperties"), backwardVisible,
+				MetadataPaths.VISIBLE_PROPERTIES_PATH, Collections.singletonList("input"), Collections.emptyList())
+				.writeTo(backward);
+
+		for (String path : Arrays.asList(MetadataPaths.METADATA_PATH, MetadataPaths.VISIBLE_PROPERTIES_PATH,
+				"ports.properties")) {
+			byte[] written = Files.readAllBytes(new File(forward, path).toPath());
+			assertThat(Files.readAllBytes(new File(backward, path).toPath())).as(path).isEqualTo(written);
+			assertThat(new String(written, StandardCharsets.ISO_8859_1)).as(path).doesNotContain("#");
+		}
+		assertThat(ScannedMetadata.readFrom(backward).getVisible()).isEqualTo(forwardVisible);
+	}
+
+	private static ConfigurationMetadata metadata(String name, String sourceType) {
+		ConfigurationMetadata metadata = new ConfigurationMetadata();
+		metadata.add(ItemMetadata.newProperty(null, name, String.class.getName(), sourceType, null, null, null, null));
+		return metadata;
+	}
+
+	private static Properties visible(String classes, String names) {
+		Properties visible = new Properties();
+		if (classes != null) {
+			visible.setProperty(MetadataPaths.CONFIGURATION_PROPERTIES_CLASSES, classes);
+		}
+		if (names != null) {
+			visible.setProperty(MetadataPaths.CONFIGURATION_PROPERTIES_NAMES, names);
+		}
+		return visible;
+	}
+
+	private static void store(Properties properties, File file) throws IOException {
+		try (OutputStream os = new FileOutputStream(file)) {
+			properties.store(os, null);
+		}
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+import org.springframework.cloud.stream.app.metadata.AggregatedMetadata;
+import org.springframework.cloud.stream.app.metadata.MetadataAggregator;
+import org.springframework.cloud.stream.app.metadata.MetadataWriters;
+import org.springframework.cloud.stream.app.metadata.ScannedMetadata;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A unit of work, run by the gradle worker API on behalf of {@link SpringMetadataAggregationTask}, that scans the
+ * metadata files of the project, merges them with the metadata extracted from its dependencies and writes the result.
+ * <p>
+ * As the work is asynchronous, gradle can run other tasks of the same project meanwhile, even without
+ * {@code --parallel}.
+ */
+public abstract class MetadataAggregationAction implements WorkAction<MetadataAggregationAction.Parameters> {
+
+	private static final Logger LOGGER = Logging.getLogger(MetadataAggregationAction.class);
+
+	@Override
+	public void execute() {
+		Parameters parameters = getParameters();
+		try {
+			List<ScannedMetadata> scanned = new ArrayList<>(SpringMetadataSupport.scanOwnedMetadata(
+					parameters.getProjectName().get(), parameters.getOwnedMetadata().getFiles(),
+					parameters.getApplicationProperties().getFiles(), parameters.getClassesDirectories().getFiles(),
+					getClass().getClassLoader()));
+			for (File directory : parameters.getDependencies().getFiles()) {
+				scanned.add(ScannedMetadata.readFrom(directory));
+			}
+			AggregatedMetadata aggregated = new MetadataAggregator(LOGGER::warn).aggregate(scanned);
+			MetadataWriters.writeMetadataFiles(aggregated, parameters.getOutputDirectory().get().getAsFile());
+			SpringMetadataSupport.writeApplicationResources(aggregated,
+					parameters.getResourcesDirectory().get().getAsFile(), parameters.getStoreFilteredMetadata().get(),
+					parameters.getMetadataFilterNames().get(), parameters.getMetadataFilterSourceTypes().get());
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	public interface Parameters extends WorkParameters {
+
+		/**
+		 * The name of the project, for logging.
+		 */
+		Property<String> getProjectName();
+
+		ConfigurableFileCollection getOwnedMetadata();
+
+		ConfigurableFileCollection getApplicationProperties();
+
+		ConfigurableFileCollection getClassesDirectories();
+
+		ConfigurableFileCollection getDependencies();
+
+		Property<Boolean> getStoreFilteredMetadata();
+
+		ListProperty<String> getMetadataFilterNames();
+
+		ListProperty<String> getMetadataFilterSourceTypes();
+
+		DirectoryProperty getOutputDirectory();
+
+		DirectoryProperty getResourcesDirectory();
+	}
+}
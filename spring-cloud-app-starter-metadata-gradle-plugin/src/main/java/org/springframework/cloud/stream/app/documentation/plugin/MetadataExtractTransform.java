@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import org.gradle.api.artifacts.transform.CacheableTransform;
+import org.gradle.api.artifacts.transform.InputArtifact;
+import org.gradle.api.artifacts.transform.TransformAction;
+import org.gradle.api.artifacts.transform.TransformOutputs;
+import org.gradle.api.artifacts.transform.TransformParameters;
+import org.gradle.api.attributes.Attribute;
+import org.gradle.api.file.FileSystemLocation;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.Classpath;
+import org.springframework.cloud.stream.app.metadata.MetadataScanner;
+import org.springframework.cloud.stream.app.metadata.ScannedMetadata;
+
+import java.io.File;
+
+/**
+ * A gradle artifact transform that extracts the Spring Boot metadata files of a single dependency jar in a small
+ * directory. Jars without any metadata produce no output at all.
+ * <p>
+ * The jar is read by the shared {@link MetadataScanner}: configuration metadata gets value hints for the enum typed
+ * properties, resolved from the jar itself, and the visible properties file with the highest precedence is kept, see
+ * {@link ScannedMetadata#writeTo(File)}.
+ * <p>
+ * As the result only depends on the content of the jar, gradle runs the transform once per artifact and caches its
+ * output, across projects and builds.
+ */
+@CacheableTransform
+public abstract class MetadataExtractTransform implements TransformAction<TransformParameters.None> {
+
+	static final Attribute<String> ARTIFACT_TYPE = Attribute.of("artifactType", String.class);
+
+	/**
+	 * The artifact type of the transformed artifacts.
+	 */
+	public static final String SPRING_METADATA_TYPE = "spring-metadata";
+
+	private static final Logger LOGGER = Logging.getLogger(MetadataExtractTransform.class);
+
+	@InputArtifact
+	@Classpath
+	public abstract Provider<FileSystemLocation> getInputArtifact();
+
+	@Override
+	public void transform(TransformOutputs outputs) {
+		File archive = getInputArtifact().get().getAsFile();
+		if (!archive.isFile()) {
+			return;
+		}
+		try {
+			ScannedMetadata scanned = SpringMetadataSupport.scanArchive(archive, getClass().getClassLoader(), LOGGER);
+			if (!scanned.isEmpty()) {
+				scanned.writeTo(outputs.dir(archive.getName().replaceAll("\\.jar$", "") + "-metadata"));
+			}
+		} catch (Exception e) {
+			throw new IllegalStateException("Could not read metadata from " + archive, e);
+		}
+	}
+}
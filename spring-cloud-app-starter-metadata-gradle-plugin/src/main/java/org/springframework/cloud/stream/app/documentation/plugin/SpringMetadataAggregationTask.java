@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkerExecutor;
+import org.springframework.cloud.stream.app.metadata.MetadataAggregator;
+
+import javax.inject.Inject;
+
+/**
+ * A gradle task that gathers all Spring Boot metadata files from the project and its dependencies and aggregates
+ * them in a single directory, to be packaged by {@link SpringMetadataTask}. Like the maven {@code aggregate-metadata}
+ * goal, it also writes the port mapping of the functions defined by the application and, optionally, the filtered
+ * metadata in encoded form, as resources of the application itself.
+ * <p>
+ * The project's own metadata files and the dependencies are declared as inputs and the aggregated files as
+ * outputs, so the task is skipped when none of them changed and its outputs can be reused from the build cache.
+ * <p>
+ * Metadata files are not read from dependency jars directly but from the output of {@link MetadataExtractTransform},
+ * which gradle computes (enum hints included) once per artifact, in parallel. This task only merges those small files,
+ * in dependency order, with the same {@link MetadataAggregator} as the maven goal. It does so in a
+ * {@link MetadataAggregationAction} submitted to the worker API, so that other tasks of the project can run meanwhile.
+ * <p>
+ * All inputs and outputs are lazy properties, configured by {@link SpringMetadataPlugin}, and the task does not use
+ * the project at execution time, so that it is compatible with the configuration cache.
+ */
+@CacheableTask
+public abstract class SpringMetadataAggregationTask extends DefaultTask {
+
+	public static final String NAME = "aggregateSpringMetadata";
+
+	public SpringMetadataAggregationTask() {
+		getStoreFilteredMetadata().convention(false);
+	}
+
+	/**
+	 * The metadata and visible properties files produced by the project itself, typically found in the outputs of
+	 * the {@code compileJava} and {@code processResources} tasks.
+	 */
+	@InputFiles
+	@PathSensitive(PathSensitivity.RELATIVE)
+	public abstract ConfigurableFileCollection getOwnedMetadata();
+
+	/**
+	 * The application configuration files ({@code .properties} or {@code .yml}) to look for function bindings in.
+	 */
+	@InputFiles
+	@PathSensitive(PathSensitivity.NAME_ONLY)
+	public abstract ConfigurableFileCollection getApplicationProperties();
+
+	/**
+	 * The class output directories of the project, where the enum types of its own properties are loaded from to
+	 * add their value hints.
+	 */
+	@Classpath
+	public abstract ConfigurableFileCollection getClassesDirectories();
+
+	/**
+	 * The metadata extracted from dependencies, as directories produced by {@link MetadataExtractTransform}. Only
+	 * their content matters, not their location or timestamps.
+	 */
+	@Classpath
+	public abstract ConfigurableFileCollection getDependencies();
+
+	/**
+	 * Whether to store the filtered metadata, encoded as a single property, in
+	 * {@code META-INF/spring-configuration-metadata-encoded.properties}.
+	 */
+	@Input
+	public abstract Property<Boolean> getStoreFilteredMetadata();
+
+	/**
+	 * The names of the properties to keep in filtered metadata, in addition to the visible properties.
+	 */
+	@Input
+	public abstract ListProperty<String> getMetadataFilterNames();
+
+	/**
+	 * The source types of the properties to keep in filtered metadata, in addition to the visible classes.
+	 */
+	@Input
+	public abstract ListProperty<String> getMetadataFilterSourceTypes();
+
+	/**
+	 * Where to write the aggregated metadata, packaged by {@link SpringMetadataTask}.
+	 */
+	@OutputDirectory
+	public abstract DirectoryProperty getOutputDirectory();
+
+	/**
+	 * Where to write the resources added to the application itself.
+	 */
+	@OutputDirectory
+	public abstract DirectoryProperty getResourcesDirectory();
+
+	@Inject
+	protected abstract WorkerExecutor getWorkerExecutor();
+
+	@TaskAction
+	public void aggregate() {
+		getWorkerExecutor().noIsolation().submit(MetadataAggregationAction.class, parameters -> {
+			parameters.getProjectName().set(getPath());
+			parameters.getOwnedMetadata().from(getOwnedMetadata());
+			parameters.getApplicationProperties().from(getApplicationProperties());
+			parameters.getClassesDirectories().from(getClassesDirectories());
+			parameters.getDependencies().from(getDependencies());
+			parameters.getStoreFilteredMetadata().set(getStoreFilteredMetadata());
+			parameters.getMetadataFilterNames().set(getMetadataFilterNames());
+			parameters.getMetadataFilterSourceTypes().set(getMetadataFilterSourceTypes());
+			parameters.getOutputDirectory().set(getOutputDirectory());
+			parameters.getResourcesDirectory().set(getResourcesDirectory());
+		});
+	}
+}
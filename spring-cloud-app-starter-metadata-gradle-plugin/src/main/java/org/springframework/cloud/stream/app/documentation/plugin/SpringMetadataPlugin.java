@@ -17,29 +17,76 @@ package org.springframework.cloud.stream.app.documentation.plugin;
 
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
-import org.gradle.api.Task;
+import org.gradle.api.artifacts.type.ArtifactTypeDefinition;
+import org.gradle.api.plugins.BasePlugin;
 import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.api.tasks.TaskProvider;
+import org.gradle.language.base.plugins.LifecycleBasePlugin;
+import org.springframework.cloud.stream.app.metadata.MetadataPaths;
+
+import java.util.Collections;
 
 /**
  * A gradle spring metadata plugin
+ * <p>
+ * Tasks are registered and wired lazily, without {@code afterEvaluate}, so that the plugin is compatible with the
+ * configuration cache.
  *
  * @author Furer Alexander
  */
 public class SpringMetadataPlugin implements Plugin<Project> {
 	@Override
 	public void apply(Project project) {
-		SpringMetadataTask metadataTask = project.getTasks().create(SpringMetadataTask.NAME, SpringMetadataTask.class);
+		project.getDependencies().registerTransform(MetadataExtractTransform.class, spec -> {
+			spec.getFrom().attribute(MetadataExtractTransform.ARTIFACT_TYPE, ArtifactTypeDefinition.JAR_TYPE);
+			spec.getTo().attribute(MetadataExtractTransform.ARTIFACT_TYPE, MetadataExtractTransform.SPRING_METADATA_TYPE);
+		});
+
+		TaskProvider<SpringMetadataAggregationTask> aggregationTask = project.getTasks()
+				.register(SpringMetadataAggregationTask.NAME, SpringMetadataAggregationTask.class, task -> {
+					task.getOutputDirectory().convention(project.getLayout().getBuildDirectory().dir("springMetadata"));
+					task.getResourcesDirectory()
+							.convention(project.getLayout().getBuildDirectory().dir("springMetadataResources"));
+				});
+		TaskProvider<SpringMetadataTask> metadataTask = project.getTasks()
+				.register(SpringMetadataTask.NAME, SpringMetadataTask.class, task -> task
+						.from(aggregationTask.flatMap(SpringMetadataAggregationTask::getOutputDirectory)));
 
-		project.afterEvaluate(p -> {
-			Task buildTask = p.getTasks().findByName("build");
-			if (null != buildTask) {
-				buildTask.dependsOn(metadataTask);
-			}
-			p.getArtifacts().add("archives", metadataTask);
+		project.getPlugins().withType(JavaPlugin.class, javaPlugin -> {
+			aggregationTask.configure(task -> {
+				task.getDependencies().from(project.getConfigurations()
+						.named(JavaPlugin.RUNTIME_CLASSPATH_CONFIGURATION_NAME)
+						.map(configuration -> configuration.getIncoming()
+								.artifactView(view -> view.attributes(attributes -> attributes.attribute(
+										MetadataExtractTransform.ARTIFACT_TYPE, MetadataExtractTransform.SPRING_METADATA_TYPE)))
+								.getFiles()));
+				task.getOwnedMetadata().from(project.files(
+						project.getTasks().named(JavaPlugin.COMPILE_JAVA_TASK_NAME),
+						project.getTasks().named(JavaPlugin.PROCESS_RESOURCES_TASK_NAME))
+						.getAsFileTree()
+						.matching(p -> {
+							p.include(MetadataPaths.METADATA_PATH);
+							p.include(MetadataPaths.VISIBLE_PROPERTIES_PATHS);
+						}));
+				task.getApplicationProperties().from(project.files(
+						project.getTasks().named(JavaPlugin.PROCESS_RESOURCES_TASK_NAME))
+						.getAsFileTree()
+						.matching(p -> p.include("*.properties", "*.yml", "*.yaml")));
+				task.getClassesDirectories().from(project.getExtensions().getByType(SourceSetContainer.class)
+						.named(SourceSet.MAIN_SOURCE_SET_NAME).map(main -> main.getOutput().getClassesDirs()));
+			});
+
+			// Port mapping and encoded metadata are resources of the app itself
+			project.getExtensions().getByType(SourceSetContainer.class).named(SourceSet.MAIN_SOURCE_SET_NAME)
+					.configure(main -> main.getOutput().dir(Collections.singletonMap("builtBy", aggregationTask),
+							aggregationTask.flatMap(SpringMetadataAggregationTask::getResourcesDirectory)));
+		});
 
-			if (p.getPlugins().hasPlugin(JavaPlugin.class)) {
-				metadataTask.dependsOn(JavaPlugin.COMPILE_JAVA_TASK_NAME, JavaPlugin.PROCESS_RESOURCES_TASK_NAME);
-			}
+		project.getPlugins().withType(BasePlugin.class, basePlugin -> {
+			project.getTasks().named(LifecycleBasePlugin.BUILD_TASK_NAME).configure(task -> task.dependsOn(metadataTask));
+			project.getArtifacts().add(BasePlugin.ARCHIVES_CONFIGURATION, metadataTask);
 		});
 	}
 }
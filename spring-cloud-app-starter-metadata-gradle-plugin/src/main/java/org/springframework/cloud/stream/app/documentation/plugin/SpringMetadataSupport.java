@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import org.gradle.api.logging.Logger;
+import org.springframework.cloud.stream.app.metadata.AggregatedMetadata;
+import org.springframework.cloud.stream.app.metadata.ClasspathElement;
+import org.springframework.cloud.stream.app.metadata.MetadataAggregator;
+import org.springframework.cloud.stream.app.metadata.MetadataFilter;
+import org.springframework.cloud.stream.app.metadata.MetadataPaths;
+import org.springframework.cloud.stream.app.metadata.MetadataScanner;
+import org.springframework.cloud.stream.app.metadata.MetadataWriters;
+import org.springframework.cloud.stream.app.metadata.ScannedMetadata;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The gradle side of the metadata processing steps shared with the maven {@code aggregate-metadata} goal, so that the
+ * gradle plugin produces the same files: how dependency jars, then the project's own files, are scanned and which
+ * resources the application gets. The steps themselves are those of the metadata core module.
+ */
+final class SpringMetadataSupport {
+
+	private SpringMetadataSupport() {
+	}
+
+	/**
+	 * Scan the given dependency jar, warning about deprecated visible properties file names.
+	 */
+	static ScannedMetadata scanArchive(File archive, ClassLoader classLoader, Logger logger) throws IOException {
+		try (ClasspathElement element = ClasspathElement.of(archive)) {
+			ScannedMetadata scanned = new MetadataScanner(classLoader).scanElement(element);
+			if (scanned.getVisiblePath() != null && !MetadataPaths.VISIBLE_PROPERTIES_PATH.equals(scanned.getVisiblePath())) {
+				logger.warn("Use of " + scanned.getVisiblePath() + " in " + archive.getName() + " is deprecated."
+						+ " Please use " + MetadataPaths.VISIBLE_PROPERTIES_PATH);
+			}
+			return scanned;
+		}
+	}
+
+	/**
+	 * Scan the metadata files of the project itself, which come first: configuration metadata files, then the visible
+	 * properties file with the highest precedence, along with the application configuration files.
+	 * @param name the name of the project, for logging
+	 * @param ownedMetadata the metadata and visible properties files of the project
+	 * @param applicationProperties the application configuration files to look for function bindings in
+	 * @param classesDirectories the class output directories of the project, where the enums of its properties are
+	 * loaded from, like the maven goal does from {@code target/classes}
+	 */
+	static List<ScannedMetadata> scanOwnedMetadata(String name, Collection<File> ownedMetadata,
+			Collection<File> applicationProperties, Collection<File> classesDirectories, ClassLoader classLoader)
+			throws IOException {
+		List<File> classes = classesDirectories.stream().filter(File::isDirectory).collect(Collectors.toList());
+		List<ClasspathElement> elements = new ArrayList<>();
+		for (File file : findOwnedFiles(ownedMetadata, MetadataPaths.METADATA_PATH)) {
+			elements.add(ClasspathElement.of(file.getPath(),
+					Collections.singletonMap(MetadataPaths.METADATA_PATH, file), Collections.emptyList(), classes));
+		}
+		File visible = null;
+		String visiblePath = null;
+		for (String path : MetadataPaths.VISIBLE_PROPERTIES_PATHS) {
+			List<File> owned = findOwnedFiles(ownedMetadata, path);
+			if (!owned.isEmpty()) {
+				visible = owned.get(0);
+				visiblePath = path;
+				break;
+			}
+		}
+		elements.add(ClasspathElement.of(name,
+				visible != null ? Collections.singletonMap(visiblePath, visible) : Collections.emptyMap(),
+				applicationProperties.stream().sorted().collect(Collectors.toList())));
+		return new MetadataScanner(classLoader).scan(elements);
+	}
+
+	/**
+	 * Write the resources the application gets: the port mapping and, unless disabled, the filtered metadata in
+	 * encoded form, which is deleted otherwise.
+	 */
+	static void writeApplicationResources(AggregatedMetadata aggregated, File resourcesDirectory,
+			boolean storeFilteredMetadata, List<String> metadataFilterNames, List<String> metadataFilterSourceTypes)
+			throws IOException {
+		MetadataWriters.writePortMapping(aggregated.getVisible(), resourcesDirectory);
+		if (storeFilteredMetadata) {
+			MetadataFilter metadataFilter = new MetadataFilter();
+			metadataFilter.setNames(new ArrayList<>(metadataFilterNames));
+			metadataFilter.setSourceTypes(new ArrayList<>(metadataFilterSourceTypes));
+			MetadataWriters.writeEncodedMetadata(MetadataAggregator.filter(aggregated.getMetadata(),
+					MetadataAggregator.visibleFilter(metadataFilter, aggregated.getVisible())), resourcesDirectory);
+		} else {
+			Files.deleteIfExists(new File(resourcesDirectory, MetadataPaths.ENCODED_METADATA_PATH).toPath());
+		}
+	}
+
+	private static List<File> findOwnedFiles(Collection<File> ownedMetadata, String path) {
+		String name = new File(path).getName();
+		return ownedMetadata.stream()
+				.filter(f -> f.getName().equals(name))
+				.sorted()
+				.collect(Collectors.toList());
+	}
+}
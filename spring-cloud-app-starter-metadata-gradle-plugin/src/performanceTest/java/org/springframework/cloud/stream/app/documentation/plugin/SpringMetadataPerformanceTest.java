@@ -0,0 +1,282 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Measures how the metadata plugin scales with large multi-project builds.
+ * <p>
+ * A build is generated with {@code perf.apps} applications, each depending on {@code perf.libraries} library
+ * subprojects and on {@code perf.jars} external jars, all of them carrying Spring Boot metadata. Each scenario runs
+ * {@code perf.iterations} times and its median is reported:
+ * <ul>
+ * <li>configuration: {@code metadataJar --dry-run}, so no task executes,</li>
+ * <li>cold: {@code clean metadataJar} with empty transform and build caches,</li>
+ * <li>warm: {@code metadataJar} again, every aggregation being up-to-date,</li>
+ * <li>cache hit: {@code clean metadataJar --build-cache}, every aggregation being restored from the build cache.</li>
+ * </ul>
+ * Every scenario starts from a running daemon, so that its startup is never part of the measured time. Each run gets
+ * its own TestKit directory, deleted once done: a daemon stops when its registry, in that directory, is gone. The numbers are
+ * written to {@code build/reports/performance} as json and asciidoc.
+ * <p>
+ * Not part of {@code check}: run it with {@code ./gradlew performanceTest -Pperf.apps=50}.
+ */
+public class SpringMetadataPerformanceTest {
+
+	private static final int APPS = Integer.getInteger("perf.apps", 20);
+
+	private static final int LIBRARIES = Integer.getInteger("perf.libraries", 100);
+
+	private static final int JARS = Integer.getInteger("perf.jars", 300);
+
+	private static final int ITERATIONS = Integer.getInteger("perf.iterations", 3);
+
+	private static final File REPORT_DIRECTORY = new File(System.getProperty("perf.reportDir", "build/reports/performance"));
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final List<File> testKitDirs = new ArrayList<>();
+
+	/**
+	 * Delete the TestKit directories left by a failed run, which stops their daemons.
+	 */
+	@After
+	public void deleteTestKitDirs() {
+		testKitDirs.forEach(SpringMetadataPerformanceTest::deleteRecursively);
+	}
+
+	@Test
+	public void metadataJarScalesToLargeBuilds() throws Exception {
+		File projectDir = temporaryFolder.newFolder("metadata-perf");
+		generateBuild(projectDir);
+
+		// the first build starts the daemon, only configure once it is warm
+		File configurationTestKitDir = newTestKitDir();
+		run(projectDir, configurationTestKitDir, "metadataJar", "--dry-run");
+		List<Long> configuration = new ArrayList<>();
+		for (int i = 0; i < ITERATIONS; i++) {
+			long start = System.nanoTime();
+			run(projectDir, configurationTestKitDir, "metadataJar", "--dry-run");
+			configuration.add(elapsed(start));
+		}
+		deleteTestKitDir(configurationTestKitDir);
+
+		List<Long> cold = new ArrayList<>();
+		List<Long> warm = new ArrayList<>();
+		List<Long> cacheHit = new ArrayList<>();
+		for (int i = 0; i < ITERATIONS; i++) {
+			// a fresh gradle user home and build cache: nothing has been transformed nor aggregated yet
+			File testKitDir = newTestKitDir();
+			deleteRecursively(new File(projectDir, "build-cache"));
+			// starts the daemon of this gradle user home without resolving nor transforming anything
+			run(projectDir, testKitDir, "help");
+
+			long start = System.nanoTime();
+			assertOutcome(run(projectDir, testKitDir, "clean", "metadataJar", "--build-cache"), TaskOutcome.SUCCESS);
+			cold.add(elapsed(start));
+
+			start = System.nanoTime();
+			assertOutcome(run(projectDir, testKitDir, "metadataJar", "--build-cache"), TaskOutcome.UP_TO_DATE);
+			warm.add(elapsed(start));
+
+			start = System.nanoTime();
+			assertOutcome(run(projectDir, testKitDir, "clean", "metadataJar", "--build-cache"), TaskOutcome.FROM_CACHE);
+			cacheHit.add(elapsed(start));
+			deleteTestKitDir(testKitDir);
+		}
+		Map<String, Long> results = new LinkedHashMap<>();
+		results.put("configuration", median(configuration));
+		results.put("cold", median(cold));
+		results.put("warm", median(warm));
+		results.put("cacheHit", median(cacheHit));
+
+		writeReport(results);
+	}
+
+	private void generateBuild(File projectDir) throws IOException {
+		StringBuilder settings = new StringBuilder("rootProject.name = 'metadata-perf'\n")
+				.append("buildCache { local { directory = file('build-cache') } }\n");
+
+		File repository = new File(projectDir, "repo");
+		repository.mkdirs();
+		for (int i = 0; i < JARS; i++) {
+			writeDependencyJar(new File(repository, "dep-" + i + "-1.0.jar"), "dep" + i);
+		}
+
+		for (int i = 0; i < LIBRARIES; i++) {
+			String name = "lib-" + i;
+			settings.append("include '").append(name).append("'\n");
+			File library = new File(projectDir, name);
+			write(new File(library, "build.gradle"), "plugins { id 'java-library' }\n");
+			writeMetadata(new File(library, "src/main/resources"), "lib" + i);
+		}
+
+		StringBuilder dependencies = new StringBuilder();
+		for (int i = 0; i < LIBRARIES; i++) {
+			dependencies.append("    implementation project(':lib-").append(i).append("')\n");
+		}
+		for (int i = 0; i < JARS; i++) {
+			dependencies.append("    implementation ':dep-").append(i).append(":1.0'\n");
+		}
+		for (int i = 0; i < APPS; i++) {
+			String name = "app-" + i;
+			settings.append("include '").append(name).append("'\n");
+			File app = new File(projectDir, name);
+			write(new File(app, "build.gradle"), "plugins {\n"
+					+ "    id 'java'\n"
+					+ "    id 'org.springframework.cloud.stream.app.documentation.aggregate-metadata'\n"
+					+ "}\n"
+					+ "repositories { flatDir { dirs rootProject.file('repo') } }\n"
+					+ "dependencies {\n" + dependencies + "}\n"
+					+ "aggregateSpringMetadata { storeFilteredMetadata = true }\n");
+			File resources = new File(app, "src/main/resources");
+			writeMetadata(resources, "app" + i);
+			write(new File(resources, "application.properties"), "spring.cloud.function.definition=upper\n"
+					+ "spring.cloud.stream.function.bindings.upper-in-0=input\n"
+					+ "spring.cloud.stream.function.bindings.upper-out-0=output\n");
+		}
+		write(new File(projectDir, "settings.gradle"), settings.toString());
+	}
+
+	private static void writeDependencyJar(File jar, String prefix) throws IOException {
+		try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(jar))) {
+			jos.putNextEntry(new ZipEntry("META-INF/spring-configuration-metadata.json"));
+			jos.write(metadataJson(prefix).getBytes(StandardCharsets.UTF_8));
+			jos.putNextEntry(new ZipEntry("META-INF/dataflow-configuration-metadata.properties"));
+			jos.write(visibleProperties(prefix).getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	private static void writeMetadata(File resources, String prefix) throws IOException {
+		write(new File(resources, "META-INF/spring-configuration-metadata.json"), metadataJson(prefix));
+		write(new File(resources, "META-INF/dataflow-configuration-metadata.properties"), visibleProperties(prefix));
+	}
+
+	private static String metadataJson(String prefix) {
+		StringBuilder json = new StringBuilder("{\"groups\":[{\"name\":\"").append(prefix)
+				.append("\",\"type\":\"com.example.").append(prefix).append(".Properties\"}],\"properties\":[");
+		for (int i = 0; i < 20; i++) {
+			json.append(i == 0 ? "" : ",").append("{\"name\":\"").append(prefix).append(".property").append(i)
+					.append("\",\"type\":\"java.lang.String\",\"sourceType\":\"com.example.").append(prefix)
+					.append(".Properties\",\"description\":\"Property ").append(i).append(" of ").append(prefix)
+					.append(".\"}");
+		}
+		return json.append("],\"hints\":[]}").toString();
+	}
+
+	private static String visibleProperties(String prefix) {
+		return "configuration-properties.classes=com.example." + prefix + ".Properties\n";
+	}
+
+	/**
+	 * Create a TestKit directory, hence a gradle user home and daemon registry, for a single scenario.
+	 */
+	private File newTestKitDir() throws IOException {
+		File testKitDir = Files.createTempDirectory("metadata-perf-testkit").toFile();
+		testKitDirs.add(testKitDir);
+		return testKitDir;
+	}
+
+	private void deleteTestKitDir(File testKitDir) {
+		deleteRecursively(testKitDir);
+		testKitDirs.remove(testKitDir);
+	}
+
+	private BuildResult run(File projectDir, File testKitDir, String... arguments) {
+		return GradleRunner.create()
+				.withProjectDir(projectDir)
+				.withTestKitDir(testKitDir)
+				.withPluginClasspath()
+				.withArguments(arguments)
+				.build();
+	}
+
+	private static long median(List<Long> durations) {
+		List<Long> sorted = new ArrayList<>(durations);
+		sorted.sort(Long::compare);
+		return sorted.get(sorted.size() / 2);
+	}
+
+	private static long elapsed(long start) {
+		return (System.nanoTime() - start) / 1_000_000;
+	}
+
+	private static void assertOutcome(BuildResult result, TaskOutcome expected) {
+		for (int i = 0; i < APPS; i++) {
+			Assert.assertEquals(expected, result.task(":app-" + i + ":" + SpringMetadataAggregationTask.NAME).getOutcome());
+		}
+	}
+
+	private void writeReport(Map<String, Long> results) throws IOException {
+		StringBuilder json = new StringBuilder("{\n")
+				.append("  \"apps\": ").append(APPS).append(",\n")
+				.append("  \"libraries\": ").append(LIBRARIES).append(",\n")
+				.append("  \"jars\": ").append(JARS).append(",\n")
+				.append("  \"iterations\": ").append(ITERATIONS).append(",\n")
+				.append("  \"medianMillis\": {\n");
+		StringBuilder adoc = new StringBuilder("= Metadata plugin performance\n\n")
+				.append(APPS).append(" apps, ").append(LIBRARIES).append(" library subprojects, ").append(JARS)
+				.append(" dependency jars, median of ").append(ITERATIONS).append(" runs.\n\n")
+				.append("|===\n|Scenario |Median (ms)\n\n");
+		int i = 0;
+		for (Map.Entry<String, Long> result : results.entrySet()) {
+			json.append("    \"").append(result.getKey()).append("\": ").append(result.getValue())
+					.append(++i < results.size() ? ",\n" : "\n");
+			adoc.append('|').append(result.getKey()).append(" |").append(result.getValue()).append('\n');
+		}
+		json.append("  }\n}\n");
+		adoc.append("|===\n");
+
+		write(new File(REPORT_DIRECTORY, "metadata-plugin.json"), json.toString());
+		write(new File(REPORT_DIRECTORY, "metadata-plugin.adoc"), adoc.toString());
+	}
+
+	private static void write(File file, String content) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void deleteRecursively(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				deleteRecursively(child);
+			}
+		}
+		file.delete();
+	}
+}
@@ -22,6 +22,7 @@ import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
 import org.junit.Test;
 import org.springframework.boot.configurationprocessor.metadata.ConfigurationMetadata;
+import org.springframework.boot.configurationprocessor.metadata.ItemHint;
 import org.springframework.boot.configurationprocessor.metadata.ItemMetadata;
 import org.springframework.boot.configurationprocessor.metadata.JsonMarshaller;
 
@@ -95,4 +96,83 @@ public class SpringMetadataTaskTest {
 			Assert.assertEquals("com.custom.Properties", wlProps.getProperty("configuration-properties.classes"));
 		}
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void mavenParityTest() throws Exception {
+
+		File testProjectDir = new File(getClass().getResource("/testProject/build.gradle").toURI()).getParentFile();
+		run(testProjectDir, "clean", "build");
+
+		JsonMarshaller jsonMarshaller = new JsonMarshaller();
+		try (ZipFile metadataJar = new ZipFile(new File(testProjectDir, "build/libs/testProject-metadata.jar"))) {
+			// enum hints are added for dependencies
+			try (InputStream is = metadataJar.getInputStream(metadataJar.getEntry("META-INF/spring-configuration-metadata.json"))) {
+				List<ItemHint> hints = jsonMarshaller.read(is).getHints();
+				Assert.assertTrue(hints.stream().anyMatch(h -> "spring.main.banner-mode".equals(h.getName())
+						&& !h.getValues().isEmpty()));
+				// and for the project itself, from its classes
+				ItemHint mode = hints.stream().filter(h -> "my.mode".equals(h.getName())).findFirst().orElse(null);
+				Assert.assertNotNull(mode);
+				Assert.assertEquals(2, mode.getValues().size());
+			}
+			// visible properties are stored under the current name too
+			Assert.assertNotNull(metadataJar.getEntry("META-INF/dataflow-configuration-metadata.properties"));
+		}
+
+		try (ZipFile appJar = new ZipFile(new File(testProjectDir, "build/libs/testProject.jar"))) {
+			Properties portMapping = new Properties();
+			try (InputStream is = appJar.getInputStream(appJar.getEntry("META-INF/dataflow-configuration-port-mapping.properties"))) {
+				portMapping.load(is);
+			}
+			Assert.assertEquals("input", portMapping.getProperty("configuration-properties.inbound-ports"));
+			Assert.assertEquals("output", portMapping.getProperty("configuration-properties.outbound-ports"));
+
+			Properties encoded = new Properties();
+			try (InputStream is = appJar.getInputStream(appJar.getEntry("META-INF/spring-configuration-metadata-encoded.properties"))) {
+				encoded.load(is);
+			}
+			String json = encoded.getProperty("org.springframework.cloud.dataflow.spring.configuration.metadata.json");
+			Assert.assertNotNull(json);
+			assertThat(json, CoreMatchers.containsString("my.custom"));
+			assertThat(json, CoreMatchers.not(CoreMatchers.containsString("spring.main.banner-mode")));
+		}
+	}
+
+	@Test
+	public void incrementalTest() throws Exception {
+
+		File testProjectDir = new File(getClass().getResource("/testProject/build.gradle").toURI()).getParentFile();
+
+		// populate the build cache, then run again from a clean build
+		run(testProjectDir, "clean", "build", "--build-cache");
+		BuildResult cached = run(testProjectDir, "clean", "build", "--build-cache");
+		Assert.assertEquals(TaskOutcome.FROM_CACHE, cached.task(":" + SpringMetadataAggregationTask.NAME).getOutcome());
+
+		// nothing changed since the last build
+		BuildResult upToDate = run(testProjectDir, "build");
+		Assert.assertEquals(TaskOutcome.UP_TO_DATE, upToDate.task(":" + SpringMetadataAggregationTask.NAME).getOutcome());
+		Assert.assertEquals(TaskOutcome.UP_TO_DATE, upToDate.task(":" + SpringMetadataTask.NAME).getOutcome());
+	}
+
+	@Test
+	public void configurationCacheTest() throws Exception {
+
+		File testProjectDir = new File(getClass().getResource("/testProject/build.gradle").toURI()).getParentFile();
+
+		run(testProjectDir, "clean", "build", "--configuration-cache");
+		BuildResult result = run(testProjectDir, "clean", "build", "--configuration-cache");
+
+		assertThat(result.getOutput(), CoreMatchers.containsString("Reusing configuration cache."));
+		Assert.assertEquals(TaskOutcome.SUCCESS, result.task(":" + SpringMetadataTask.NAME).getOutcome());
+		Assert.assertTrue(new File(testProjectDir, "build/libs/testProject-metadata.jar").isFile());
+	}
+
+	private BuildResult run(File projectDir, String... arguments) {
+		return GradleRunner.create()
+				.withProjectDir(projectDir)
+				.withPluginClasspath()
+				.forwardOutput()
+				.withArguments(arguments)
+				.build();
+	}
+}
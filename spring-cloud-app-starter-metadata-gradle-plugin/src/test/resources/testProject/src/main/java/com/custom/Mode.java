@@ -0,0 +1,6 @@
+package com.custom;
+
+public enum Mode {
+
+	SIMPLE, DETAILED
+}
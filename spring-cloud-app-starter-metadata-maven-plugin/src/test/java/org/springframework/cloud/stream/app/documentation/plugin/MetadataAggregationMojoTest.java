@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.documentation.plugin;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.boot.configurationprocessor.metadata.ConfigurationMetadata;
+import org.springframework.boot.configurationprocessor.metadata.ItemMetadata;
+import org.springframework.boot.configurationprocessor.metadata.JsonMarshaller;
+import org.springframework.cloud.stream.app.metadata.AggregatedMetadata;
+import org.springframework.cloud.stream.app.metadata.MetadataPaths;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MetadataAggregationMojoTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void projectsSharingAJarDoNotSeeEachOtherMetadata() throws Exception {
+		File shared = jar("shared.jar", "shared.value", "Shared value.");
+		File overriding = jar("overriding.jar", "shared.value", "Overridden value.");
+		@SuppressWarnings("deprecation")
+		MavenSession session = new MavenSession(null, new DefaultRepositorySystemSession(),
+				new DefaultMavenExecutionRequest(), new DefaultMavenExecutionResult());
+
+		AggregatedMetadata first = aggregate(session, temporaryFolder.newFolder("first"), shared, overriding);
+		AggregatedMetadata second = aggregate(session, temporaryFolder.newFolder("second"), shared);
+		AggregatedMetadata third = aggregate(session, temporaryFolder.newFolder("third"), shared);
+
+		assertThat(description(first, "shared.value")).isEqualTo("Overridden value.");
+		assertThat(description(second, "shared.value")).isEqualTo("Shared value.");
+		assertThat(description(third, "shared.value")).isEqualTo("Shared value.");
+		assertThat(third.getMetadata().getItems()).doesNotContainAnyElementsOf(second.getMetadata().getItems());
+	}
+
+	private AggregatedMetadata aggregate(MavenSession session, File classes, File... jars) throws Exception {
+		List<String> classpath = new ArrayList<>();
+		classpath.add(classes.getPath());
+		for (File jar : jars) {
+			classpath.add(jar.getPath());
+		}
+		MavenProject project = new MavenProject() {
+
+			@Override
+			public List<String> getRuntimeClasspathElements() {
+				return classpath;
+			}
+		};
+		MetadataAggregationMojo mojo = new MetadataAggregationMojo();
+		setField(mojo, "mavenProject", project);
+		setField(mojo, "session", session);
+		return mojo.aggregate();
+	}
+
+	private File jar(String name, String property, String description) throws Exception {
+		ConfigurationMetadata metadata = new ConfigurationMetadata();
+		metadata.add(ItemMetadata.newProperty(null, property, String.class.getName(), "com.acme.Properties", null,
+				description, null, null));
+		File jar = new File(temporaryFolder.getRoot(), name);
+		try (JarOutputStream os = new JarOutputStream(new FileOutputStream(jar))) {
+			os.putNextEntry(new ZipEntry(MetadataPaths.METADATA_PATH));
+			new JsonMarshaller().write(metadata, os);
+			os.closeEntry();
+		}
+		return jar;
+	}
+
+	private static String description(AggregatedMetadata aggregated, String property) {
+		return aggregated.getMetadata().getItems().stream()
+				.filter(item -> property.equals(item.getName()))
+				.map(ItemMetadata::getDescription)
+				.findFirst()
+				.orElse(null);
+	}
+
+	private static void setField(Object target, String name, Object value) {
+		Field field = ReflectionUtils.findField(target.getClass(), name);
+		ReflectionUtils.makeAccessible(field);
+		ReflectionUtils.setField(field, target, value);
+	}
+
+}
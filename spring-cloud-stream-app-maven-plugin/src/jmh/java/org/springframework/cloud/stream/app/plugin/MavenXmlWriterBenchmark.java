@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.plugin;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.codehaus.plexus.util.xml.pull.MXSerializer;
+import org.codehaus.plexus.util.xml.pull.XmlSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares serializing the dependencies of an app with {@link MavenXmlWriter} against the previous implementation,
+ * which looked the private write method up, created a {@link MavenXpp3Writer} and a serializer, and built the
+ * indentation prefix with a stream, for every element.
+ *
+ * Run with {@code ./mvnw -Pbenchmark test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MavenXmlWriterBenchmark {
+
+	@Param({ "10", "50" })
+	private int dependencyCount;
+
+	private List<Dependency> dependencies;
+
+	@Setup
+	public void setup() {
+		this.dependencies = new ArrayList<>();
+		for (int i = 0; i < this.dependencyCount; i++) {
+			Dependency dependency = new Dependency();
+			dependency.setGroupId("org.springframework.cloud.fn");
+			dependency.setArtifactId("function-" + i);
+			dependency.setVersion("1.0.0.BUILD-SNAPSHOT");
+			this.dependencies.add(dependency);
+		}
+	}
+
+	@Benchmark
+	public List<String> cached() {
+		return this.dependencies.stream()
+				.map(MavenXmlWriter::toXml)
+				.map(xml -> MavenXmlWriter.indent(xml, 12))
+				.collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public List<String> reflective() {
+		return this.dependencies.stream()
+				.map(MavenXmlWriterBenchmark::reflectiveToXml)
+				.map(xml -> streamIndent(xml, 12))
+				.collect(Collectors.toList());
+	}
+
+	private static String reflectiveToXml(Dependency dependency) {
+		try {
+			Writer writer = new StringWriter();
+			XmlSerializer serializer = new MXSerializer();
+			serializer.setProperty("http://xmlpull.org/v1/doc/properties.html#serializer-indentation", "  ");
+			serializer.setProperty("http://xmlpull.org/v1/doc/properties.html#serializer-line-separator", "\n");
+			serializer.setOutput(writer);
+			serializer.startDocument("UTF-8", null);
+			MavenXpp3Writer pomWriter = new MavenXpp3Writer();
+			Method method = pomWriter.getClass().getDeclaredMethod(
+					"writeDependency", Dependency.class, String.class, XmlSerializer.class);
+			method.setAccessible(true);
+			method.invoke(pomWriter, dependency, "dependency", serializer);
+			serializer.endDocument();
+			String result = writer.toString();
+			return result.substring(result.indexOf('\n') + 1);
+		}
+		catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String streamIndent(String input, int indentation) {
+		String indentPrefix = "\n" + IntStream.range(0, indentation).mapToObj(i -> " ").collect(Collectors.joining());
+		String indentedInput = input.replace("\n", indentPrefix);
+		return indentedInput.substring(0, indentedInput.lastIndexOf(indentPrefix));
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.stream.app.plugin;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+
+import org.apache.maven.model.Dependency;
+
+import org.springframework.cloud.stream.app.plugin.generator.AppDefinition;
+import org.springframework.util.StringUtils;
+
+/**
+ * Reads the apps of a catalog from a properties file. Each app is described by the properties prefixed with its id:
+ *
+ * <pre>
+ * log-sink.name=log
+ * log-sink.type=sink
+ * log-sink.version=3.0.0.BUILD-SNAPSHOT
+ * log-sink.config-class=io.pivotal.java.function.log.consumer.LogConsumerConfiguration.class
+ * log-sink.function-definition=logConsumer
+ * log-sink.group=sinks
+ * log-sink.dependencies=io.pivotal.java.function:log-consumer:1.0.0.BUILD-SNAPSHOT
+ * log-sink.startup-optimized=true
+ * </pre>
+ *
+ * The name defaults to the id and the dependencies are comma separated {@code groupId:artifactId[:version]}
+ * coordinates. The startup options are {@code startup-optimized}, {@code lazy-initialization},
+ * {@code context-indexer}, {@code spring-aot} and {@code class-data-sharing}, and {@code jvm-profile} overrides the
+ * runtime JVM profile of the container image. {@code benchmark} generates a throughput benchmark of the app and
+ * {@code metrics} instruments it with the Prometheus registry. {@code function-flavor} is one of the
+ * {@link AppDefinition.FunctionFlavor}s. The apps are returned sorted by id.
+ */
+final class AppCatalog {
+
+	private AppCatalog() {
+	}
+
+	static List<SpringCloudStreamAppGeneratorMojo.GeneratedApp> load(File catalogFile) throws IOException {
+		Properties properties = new Properties();
+		try (InputStream is = new FileInputStream(catalogFile)) {
+			properties.load(is);
+		}
+		TreeSet<String> ids = new TreeSet<>();
+		for (String key : properties.stringPropertyNames()) {
+			int separator = key.lastIndexOf('.');
+			if (separator <= 0) {
+				throw new IOException("Invalid catalog entry, expected <app-id>.<property>: " + key);
+			}
+			ids.add(key.substring(0, separator));
+		}
+		List<SpringCloudStreamAppGeneratorMojo.GeneratedApp> apps = new ArrayList<>();
+		for (String id : ids) {
+			SpringCloudStreamAppGeneratorMojo.GeneratedApp app = new SpringCloudStreamAppGeneratorMojo.GeneratedApp();
+			app.setName(properties.getProperty(id + ".name", id));
+			String type = properties.getProperty(id + ".type");
+			if (!StringUtils.hasText(type)) {
+				throw new IOException("No type for the catalog app " + id);
+			}
+			try {
+				app.setType(AppDefinition.AppType.valueOf(type.trim()));
+			} catch (IllegalArgumentException e) {
+				throw new IOException("Invalid type for the catalog app " + id + ": " + type);
+			}
+			app.setVersion(properties.getProperty(id + ".version"));
+			app.setConfigClass(properties.getProperty(id + ".config-class"));
+			app.setFunctionDefinition(properties.getProperty(id + ".function-definition"));
+			app.setGroup(properties.getProperty(id + ".group"));
+			app.setStartupOptimized(Boolean.parseBoolean(properties.getProperty(id + ".startup-optimized")));
+			app.setLazyInitialization(Boolean.parseBoolean(properties.getProperty(id + ".lazy-initialization",
+					String.valueOf(app.isLazyInitialization()))));
+			app.setContextIndexer(Boolean.parseBoolean(properties.getProperty(id + ".context-indexer",
+					String.valueOf(app.isContextIndexer()))));
+			app.setJvmProfile(properties.getProperty(id + ".jvm-profile"));
+			app.setBenchmark(Boolean.parseBoolean(properties.getProperty(id + ".benchmark")));
+			app.setMetrics(Boolean.parseBoolean(properties.getProperty(id + ".metrics")));
+			String functionFlavor = properties.getProperty(id + ".function-flavor");
+			if (StringUtils.hasText(functionFlavor)) {
+				try {
+					app.setFunctionFlavor(AppDefinition.FunctionFlavor.valueOf(functionFlavor.trim()));
+				} catch (IllegalArgumentException e) {
+					throw new IOException("Invalid function flavor for the catalog app " + id + ": " + functionFlavor);
+				}
+			}
+			app.setSpringAot(Boolean.parseBoolean(properties.getProperty(id + ".spring-aot")));
+			app.setClassDataSharing(Boolean.parseBoolean(properties.getProperty(id + ".class-data-sharing",
+					String.valueOf(app.isClassDataSharing()))));
+			for (String coordinates : StringUtils.commaDelimitedListToStringArray(
+					properties.getProperty(id + ".dependencies", ""))) {
+				app.getDependencies().add(toDependency(id, coordinates.trim()));
+			}
+			apps.add(app);
+		}
+		return apps;
+	}
+
+	private static Dependency toDependency(String id, String coordinates) throws IOException {
+		String[] parts = coordinates.split(":");
+		if (parts.length < 2 || parts.length > 3) {
+			throw new IOException("Invalid dependency of the catalog app " + id + ", expected groupId:artifactId[:version]: "
+					+ coordinates);
+		}
+		Dependency dependency = new Dependency();
+		dependency.setGroupId(parts[0]);
+		dependency.setArtifactId(parts[1]);
+		if (parts.length == 3) {
+			dependency.setVersion(parts[2]);
+		}
+		return dependency;
+	}
+}
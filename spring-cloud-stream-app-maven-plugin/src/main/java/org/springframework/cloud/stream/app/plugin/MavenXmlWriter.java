@@ -18,11 +18,14 @@ package org.springframework.cloud.stream.app.plugin;
 
 import java.io.StringReader;
 import java.io.StringWriter;
-import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import org.apache.maven.model.Plugin;
 import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
@@ -34,10 +37,21 @@ import org.codehaus.plexus.util.xml.pull.XmlSerializer;
 /**
  * Uses the private MavenXpp3Writer write methods to convert Model elements into XML strings.
  *
+ * The write methods are looked up once per model class and method name, and invoked through cached
+ * {@link MethodHandle}s bound to a single, stateless, {@link MavenXpp3Writer}. Serializers, which hold the state of
+ * the element being written, and their buffers are pooled: a write borrows one for its duration, so that writing is
+ * thread safe and reentrant, a nested write borrowing another one.
+ *
  * @author Christian Tzolov
  */
 public class MavenXmlWriter {
 
+	private static final MavenXpp3Writer POM_WRITER = new MavenXpp3Writer();
+
+	private static final Map<Class<?>, Map<String, MethodHandle>> WRITE_METHODS = new ConcurrentHashMap<>();
+
+	private static final Queue<ReusableSerializer> SERIALIZERS = new ConcurrentLinkedQueue<>();
+
 	/**
 	 * Serializes any instance of a e.g. org.apache.maven.model.XXXX class into XML text.
 	 * Via reflections calls the private MavenXpp3Writer#writeXXXX(XXXX, String, XmlSerializer) method.
@@ -98,19 +112,20 @@ public class MavenXmlWriter {
 
 	public static String write(Consumer<XmlSerializer> elementWriter) {
 		try {
-			Writer writer = new StringWriter();
-
-			XmlSerializer serializer = new MXSerializer();
-			serializer.setProperty("http://xmlpull.org/v1/doc/properties.html#serializer-indentation", "  ");
-			serializer.setProperty("http://xmlpull.org/v1/doc/properties.html#serializer-line-separator", "\n");
-			serializer.setOutput(writer);
+			ReusableSerializer reusable = SERIALIZERS.poll();
+			if (reusable == null) {
+				reusable = new ReusableSerializer();
+			}
+			XmlSerializer serializer = reusable.reset();
 
 			serializer.startDocument("UTF-8", null);
 			elementWriter.accept(serializer);
 			serializer.endDocument();
 
-			String result = writer.toString();
-			return result.substring(result.indexOf('\n') + 1); // remove first line (e.g. remove the <?xml ... ?>)
+			StringBuffer result = reusable.writer.getBuffer();
+			String xml = result.substring(result.indexOf("\n") + 1); // remove first line (e.g. remove the <?xml ... ?>)
+			SERIALIZERS.offer(reusable); // only once done: a failed write leaves its serializer to the garbage collector
+			return xml;
 		}
 		catch (Exception e) {
 			throw new IllegalStateException(e);
@@ -130,20 +145,74 @@ public class MavenXmlWriter {
 			String xmlTagName, XmlSerializer serializer) {
 
 		try {
-			MavenXpp3Writer pomWriter = new MavenXpp3Writer();
-			Method method = pomWriter.getClass().getDeclaredMethod(
-					writeMethodName, modelElementToWrite.getClass(), String.class, XmlSerializer.class);
-			method.setAccessible(true); // allow invoking private method.
-			method.invoke(pomWriter, modelElementToWrite, xmlTagName, serializer);
+			getWriteMethod(modelElementToWrite.getClass(), writeMethodName)
+					.invoke(modelElementToWrite, xmlTagName, serializer);
 		}
-		catch (Exception e) {
+		catch (Error e) {
+			throw e;
+		}
+		catch (Throwable e) {
 			throw new IllegalStateException(e);
 		}
 	}
 
+	/**
+	 * Indents every line but the first by the given number of spaces, and removes the trailing line break.
+	 */
 	public static String indent(String input, int indentation) {
-		String indentPrefix = "\n" + IntStream.range(0, indentation).mapToObj(i -> " ").collect(Collectors.joining());
-		String indentedInput = input.replace("\n", indentPrefix);
-		return indentedInput.substring(0, indentedInput.lastIndexOf(indentPrefix)); // remove the last empty line.
+		int end = input.lastIndexOf('\n'); // remove the last empty line.
+		if (end < 0) {
+			end = input.length();
+		}
+		StringBuilder indented = new StringBuilder(end + (indentation * 32));
+		for (int i = 0; i < end; i++) {
+			char c = input.charAt(i);
+			indented.append(c);
+			if (c == '\n') {
+				for (int j = 0; j < indentation; j++) {
+					indented.append(' ');
+				}
+			}
+		}
+		return indented.toString();
+	}
+
+	private static MethodHandle getWriteMethod(Class<?> modelClass, String writeMethodName) {
+		return WRITE_METHODS.computeIfAbsent(modelClass, c -> new ConcurrentHashMap<>())
+				.computeIfAbsent(writeMethodName, name -> {
+					try {
+						Method method = MavenXpp3Writer.class.getDeclaredMethod(
+								name, modelClass, String.class, XmlSerializer.class);
+						method.setAccessible(true); // allow invoking private method.
+						return MethodHandles.lookup().unreflect(method).bindTo(POM_WRITER);
+					}
+					catch (ReflectiveOperationException e) {
+						throw new IllegalStateException(e);
+					}
+				});
+	}
+
+	/**
+	 * A serializer writing to a buffer, both reused by the writes that borrow them from the pool, one at a time.
+	 */
+	private static final class ReusableSerializer {
+
+		private final StringWriter writer = new StringWriter();
+
+		private final XmlSerializer serializer = new MXSerializer();
+
+		private ReusableSerializer() throws Exception {
+			this.serializer.setProperty("http://xmlpull.org/v1/doc/properties.html#serializer-indentation", "  ");
+			this.serializer.setProperty("http://xmlpull.org/v1/doc/properties.html#serializer-line-separator", "\n");
+		}
+
+		/**
+		 * Clear the buffer and reset the serializer, which {@code setOutput} does, for a new document.
+		 */
+		private XmlSerializer reset() throws Exception {
+			this.writer.getBuffer().setLength(0);
+			this.serializer.setOutput(this.writer);
+			return this.serializer;
+		}
 	}
 }
@@ -20,12 +20,17 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.stream.Collectors;
 import org.apache.commons.io.FileUtils;
+import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.AbstractMojo;
@@ -35,6 +40,9 @@ import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.springframework.cloud.stream.app.plugin.generator.AppBom;
 import org.springframework.cloud.stream.app.plugin.generator.AppDefinition;
+import org.springframework.cloud.stream.app.plugin.generator.CatalogGenerator;
+import org.springframework.cloud.stream.app.plugin.generator.GeneratedFiles;
+import org.springframework.cloud.stream.app.plugin.generator.JvmProfile;
 import org.springframework.cloud.stream.app.plugin.generator.ProjectGenerator;
 import org.springframework.cloud.stream.app.plugin.generator.ProjectGeneratorProperties;
 import org.springframework.util.CollectionUtils;
@@ -51,6 +59,18 @@ public class SpringCloudStreamAppGeneratorMojo extends AbstractMojo {
 	private static final String VISIBLE_PROPERTIES_FILE_NAME = "dataflow-configuration-metadata.properties";
 	private static final String CONFIGURATION_PROPERTIES_CLASSES = "configuration-properties.classes";
 	private static final String CONFIGURATION_PROPERTIES_NAMES = "configuration-properties.names";
+	private static final List<String> BINDER_LAYER_GLOBS = Arrays.asList("/app/libs/spring-cloud-stream-binder-*.jar",
+			"/app/libs/spring-kafka-*.jar", "/app/libs/kafka-clients-*.jar", "/app/libs/spring-rabbit-*.jar",
+			"/app/libs/spring-amqp-*.jar", "/app/libs/amqp-client-*.jar");
+	private static final String JAVA_21_BASE_IMAGE = "eclipse-temurin:21-jre";
+	private static final Map<String, String> SPRING_NATIVE_BOOT_VERSIONS = new LinkedHashMap<>();
+
+	static {
+		SPRING_NATIVE_BOOT_VERSIONS.put("0.9", "2.4");
+		SPRING_NATIVE_BOOT_VERSIONS.put("0.10", "2.5");
+		SPRING_NATIVE_BOOT_VERSIONS.put("0.11", "2.6");
+		SPRING_NATIVE_BOOT_VERSIONS.put("0.12", "2.7");
+	}
 
 	public static class GeneratedApp {
 
@@ -59,6 +79,16 @@ public class SpringCloudStreamAppGeneratorMojo extends AbstractMojo {
 		private AppDefinition.AppType type;
 		private String configClass;
 		private String functionDefinition;
+		private String group;
+		private List<Dependency> dependencies = new ArrayList<>();
+		private boolean lazyInitialization;
+		private boolean contextIndexer;
+		private boolean springAot;
+		private boolean classDataSharing;
+		private String jvmProfile;
+		private boolean benchmark;
+		private boolean metrics;
+		private AppDefinition.FunctionFlavor functionFlavor = AppDefinition.FunctionFlavor.imperative;
 
 		public String getName() {
 			return name;
@@ -101,6 +131,128 @@ public class SpringCloudStreamAppGeneratorMojo extends AbstractMojo {
 			this.functionDefinition = functionDefinition;
 		}
 
+		/**
+		 * The catalog group of the app, its type by default.
+		 */
+		public String getGroup() {
+			return StringUtils.hasText(this.group) ? this.group : String.valueOf(this.type);
+		}
+
+		public void setGroup(String group) {
+			this.group = group;
+		}
+
+		/**
+		 * The dependencies of this app only, in addition to the dependencies shared by every app of a catalog.
+		 */
+		public List<Dependency> getDependencies() {
+			return dependencies;
+		}
+
+		public void setDependencies(List<Dependency> dependencies) {
+			this.dependencies = dependencies;
+		}
+
+		/**
+		 * Initialize the beans lazily, when first needed.
+		 */
+		public boolean isLazyInitialization() {
+			return lazyInitialization;
+		}
+
+		public void setLazyInitialization(boolean lazyInitialization) {
+			this.lazyInitialization = lazyInitialization;
+		}
+
+		/**
+		 * Index the components at compile time instead of scanning the class path at startup.
+		 */
+		public boolean isContextIndexer() {
+			return contextIndexer;
+		}
+
+		public void setContextIndexer(boolean contextIndexer) {
+			this.contextIndexer = contextIndexer;
+		}
+
+		/**
+		 * Run the Spring Native AOT processing at build time. Requires the Spring Boot generation of the
+		 * {@code springNativeVersion}, e.g. 2.4 for Spring Native 0.9.
+		 */
+		public boolean isSpringAot() {
+			return springAot;
+		}
+
+		public void setSpringAot(boolean springAot) {
+			this.springAot = springAot;
+		}
+
+		/**
+		 * Create a class data sharing archive at build time, with the JDK of the base image run by Docker, and start
+		 * the container image with it.
+		 */
+		public boolean isClassDataSharing() {
+			return classDataSharing;
+		}
+
+		public void setClassDataSharing(boolean classDataSharing) {
+			this.classDataSharing = classDataSharing;
+		}
+
+		/**
+		 * The runtime JVM profile of this app container image, overriding the one of the {@link ContainerImage}.
+		 */
+		public String getJvmProfile() {
+			return jvmProfile;
+		}
+
+		public void setJvmProfile(String jvmProfile) {
+			this.jvmProfile = jvmProfile;
+		}
+
+		/**
+		 * Generate a throughput benchmark of the app bindings, run with {@code ./mvnw test -Pbenchmark}.
+		 */
+		public boolean isBenchmark() {
+			return benchmark;
+		}
+
+		public void setBenchmark(boolean benchmark) {
+			this.benchmark = benchmark;
+		}
+
+		/**
+		 * Instrument the app with the Micrometer Prometheus registry.
+		 */
+		public boolean isMetrics() {
+			return metrics;
+		}
+
+		public void setMetrics(boolean metrics) {
+			this.metrics = metrics;
+		}
+
+		/**
+		 * Enable every startup optimization but the Spring AOT processing, which depends on the Spring Boot version.
+		 */
+		public void setStartupOptimized(boolean startupOptimized) {
+			this.lazyInitialization = startupOptimized;
+			this.contextIndexer = startupOptimized;
+			this.classDataSharing = startupOptimized;
+		}
+
+		/**
+		 * How the app function is executed: {@code imperative}, the default, {@code reactive} or
+		 * {@code virtualThreads}, which requires a {@code bootVersion} of 3.2 or later.
+		 */
+		public AppDefinition.FunctionFlavor getFunctionFlavor() {
+			return functionFlavor;
+		}
+
+		public void setFunctionFlavor(AppDefinition.FunctionFlavor functionFlavor) {
+			this.functionFlavor = functionFlavor;
+		}
+
 		private String functionType() {
 			switch (this.type) {
 				case processor:
@@ -118,6 +270,14 @@ public class SpringCloudStreamAppGeneratorMojo extends AbstractMojo {
 		private AppDefinition.ContainerImageFormat format = AppDefinition.ContainerImageFormat.Docker;
 		private String orgName = "springcloudstream";
 		private boolean enableMetadata = true;
+		private String jvmProfile;
+		private List<String> jvmFlags = new ArrayList<>();
+		private String creationTime = "EPOCH";
+		private String baseImage;
+		private Integer baseImageJavaVersion;
+		private String jibVersion = "2.6.0";
+		private boolean splitBinderLayer;
+		private Map<String, String> extraLayers = new LinkedHashMap<>();
 
 		public AppDefinition.ContainerImageFormat getFormat() {
 			return format;
@@ -142,6 +302,98 @@ public class SpringCloudStreamAppGeneratorMojo extends AbstractMojo {
 		public void setEnableMetadata(boolean enableMetadata) {
 			this.enableMetadata = enableMetadata;
 		}
+
+		/**
+		 * The runtime JVM profile of the images: {@code low-latency}, {@code throughput} or {@code small-footprint}.
+		 * None by default, the JVM ergonomics apply.
+		 */
+		public String getJvmProfile() {
+			return jvmProfile;
+		}
+
+		public void setJvmProfile(String jvmProfile) {
+			this.jvmProfile = jvmProfile;
+		}
+
+		/**
+		 * Additional runtime JVM flags of the images, after the ones of the profile.
+		 */
+		public List<String> getJvmFlags() {
+			return jvmFlags;
+		}
+
+		public void setJvmFlags(List<String> jvmFlags) {
+			this.jvmFlags = jvmFlags;
+		}
+
+		/**
+		 * The creation time of the images: {@code EPOCH}, the default, so that an unchanged app gets the same image
+		 * digest, {@code USE_CURRENT_TIMESTAMP} or an ISO 8601 date time such as
+		 * {@code ${project.build.outputTimestamp}}.
+		 */
+		public String getCreationTime() {
+			return creationTime;
+		}
+
+		public void setCreationTime(String creationTime) {
+			this.creationTime = creationTime;
+		}
+
+		/**
+		 * The base image of the container images. By default {@code eclipse-temurin:21-jre} for the apps using virtual
+		 * threads or class data sharing, {@code springcloud/openjdk} otherwise.
+		 */
+		public String getBaseImage() {
+			return baseImage;
+		}
+
+		public void setBaseImage(String baseImage) {
+			this.baseImage = baseImage;
+		}
+
+		/**
+		 * The Java version of the {@code baseImage}, which the apps using virtual threads require to be 21 or later.
+		 */
+		public Integer getBaseImageJavaVersion() {
+			return baseImageJavaVersion;
+		}
+
+		public void setBaseImageJavaVersion(Integer baseImageJavaVersion) {
+			this.baseImageJavaVersion = baseImageJavaVersion;
+		}
+
+		/**
+		 * The version of the jib-maven-plugin. Layer splitting requires 3.1 or later.
+		 */
+		public String getJibVersion() {
+			return jibVersion;
+		}
+
+		public void setJibVersion(String jibVersion) {
+			this.jibVersion = jibVersion;
+		}
+
+		/**
+		 * Move the binder and middleware client jars to a layer of their own.
+		 */
+		public boolean isSplitBinderLayer() {
+			return splitBinderLayer;
+		}
+
+		public void setSplitBinderLayer(boolean splitBinderLayer) {
+			this.splitBinderLayer = splitBinderLayer;
+		}
+
+		/**
+		 * Additional image layers: comma separated globs of the image files to move to each layer, by layer name.
+		 */
+		public Map<String, String> getExtraLayers() {
+			return extraLayers;
+		}
+
+		public void setExtraLayers(Map<String, String> extraLayers) {
+			this.extraLayers = extraLayers;
+		}
 	}
 
 	@Parameter(defaultValue = "${project}", readonly = true, required = true)
@@ -153,15 +405,67 @@ public class SpringCloudStreamAppGeneratorMojo extends AbstractMojo {
 	@Parameter(defaultValue = "./apps", required = true)
 	private String generatedProjectHome;
 
+	/**
+	 * Directory of Mustache templates overriding the bundled ones, e.g. {@code app-pom.xml} or {@code README.adoc}.
+	 */
+	@Parameter
+	private File templatesDirectory;
+
+	/**
+	 * Maximum number of binder app projects generated concurrently.
+	 */
+	@Parameter(defaultValue = "1")
+	private int parallelism = 1;
+
+	/**
+	 * How the project resources are shared with the binder app projects: {@code copy}, {@code link} or
+	 * {@code reference}. Referenced resources are located relatively to the app projects, which then can't be moved
+	 * without the source project.
+	 */
+	@Parameter(defaultValue = "copy")
+	private ProjectGeneratorProperties.ResourcesMode resourcesMode = ProjectGeneratorProperties.ResourcesMode.copy;
+
+	/**
+	 * Where the Maven wrapper is generated: {@code copy} in the container and every app project, {@code link} from
+	 * the container into every app project, or in the {@code container} only.
+	 */
+	@Parameter(defaultValue = "copy")
+	private ProjectGeneratorProperties.WrapperMode wrapperMode = ProjectGeneratorProperties.WrapperMode.copy;
+
 	@Parameter
 	private ContainerImage containerImage = new ContainerImage();
 
-	@Parameter(required = true)
+	@Parameter
 	private GeneratedApp generatedApp;
 
+	/**
+	 * Apps of a catalog generated in one execution, sharing the BOMs and global dependencies. The {@code dependencies}
+	 * and {@code additionalPlugins} only belong to the {@code generatedApp}, which joins the catalog.
+	 */
+	@Parameter
+	private List<GeneratedApp> generatedApps = new ArrayList<>();
+
+	/**
+	 * Properties file of catalog apps, added to the {@code generatedApps}. See {@link AppCatalog}.
+	 */
+	@Parameter
+	private File catalogFile;
+
+	/**
+	 * Version of the catalog group container POMs.
+	 */
+	@Parameter(defaultValue = "${project.version}")
+	private String catalogVersion;
+
 	@Parameter
 	List<String> additionalAppProperties;
 
+	/**
+	 * Instrument every generated app with the Micrometer Prometheus registry, see {@link GeneratedApp#isMetrics()}.
+	 */
+	@Parameter
+	private boolean metrics;
+
 	@Parameter
 	List<String> metadataSourceTypeFilters = new ArrayList<>();
 
@@ -190,34 +494,25 @@ public class SpringCloudStreamAppGeneratorMojo extends AbstractMojo {
 	@Parameter(defaultValue = "${app-metadata-maven-plugin-version}")
 	private String appMetadataMavenPluginVersion;
 
+	/**
+	 * Spring Native version of the apps using the Spring AOT processing.
+	 */
+	@Parameter(defaultValue = "0.9.2")
+	private String springNativeVersion;
+
 	@Override
 	public void execute() throws MojoFailureException {
 		// Bom
 		AppBom appBom = new AppBom()
 				.withSpringBootVersion(this.bootVersion)
-				.withAppMetadataMavenPluginVersion(this.appMetadataMavenPluginVersion);
-
-		AppDefinition app = new AppDefinition();
-		app.setName(this.generatedApp.getName());
-		app.setType(this.generatedApp.getType());
-		app.setVersion(this.generatedApp.getVersion());
-		app.setConfigClass(this.generatedApp.getConfigClass());
-		app.setFunctionDefinition(this.generatedApp.getFunctionDefinition());
+				.withAppMetadataMavenPluginVersion(this.appMetadataMavenPluginVersion)
+				.withSpringNativeVersion(this.springNativeVersion);
 
 		this.populateVisiblePropertiesFromFile(this.metadataSourceTypeFilters, this.metadataNameFilters);
 
-		if (!CollectionUtils.isEmpty(this.metadataSourceTypeFilters)) {
-			app.setMetadataSourceTypeFilters(this.metadataSourceTypeFilters);
-		}
-
-		if (!CollectionUtils.isEmpty(this.metadataNameFilters)) {
-			app.setMetadataNameFilters(this.metadataNameFilters);
-		}
-
-		app.setAdditionalProperties(this.additionalAppProperties);
-
+		// The XML fragments shared by every app are serialized once.
 		// BOM
-		app.setMavenManagedDependencies(this.boms.stream()
+		List<String> managedDependencies = this.boms.stream()
 				.filter(Objects::nonNull)
 				.map(dependency -> {
 					dependency.setScope("import");
@@ -226,21 +521,115 @@ public class SpringCloudStreamAppGeneratorMojo extends AbstractMojo {
 				})
 				.map(MavenXmlWriter::toXml)
 				.map(xml -> MavenXmlWriter.indent(xml, 12))
-				.collect(Collectors.toList()));
+				.collect(Collectors.toList());
 
 		// Dependencies
-		List<Dependency> allDependenciesMerged = new ArrayList<>(this.dependencies);
-		allDependenciesMerged.addAll(this.globalDependencies);
-		app.setMavenDependencies(allDependenciesMerged.stream()
-				.map(MavenXmlWriter::toXml)
-				.map(xml -> MavenXmlWriter.indent(xml, 8))
-				.collect(Collectors.toList()));
+		List<String> sharedDependencies = toDependenciesXml(this.globalDependencies);
+		List<String> generatedAppDependencies = toDependenciesXml(this.dependencies);
 
 		// Plugins
-		app.setMavenPlugins(this.additionalPlugins.stream()
+		List<String> plugins = this.additionalPlugins.stream()
 				.map(MavenXmlWriter::toXml)
 				.map(d -> MavenXmlWriter.indent(d, 12))
-				.collect(Collectors.toList()));
+				.collect(Collectors.toList());
+
+		List<GeneratedApp> catalog = new ArrayList<>(this.generatedApps);
+		if (this.catalogFile != null) {
+			try {
+				catalog.addAll(AppCatalog.load(this.catalogFile));
+			} catch (IOException e) {
+				throw new MojoFailureException("Cannot read the app catalog " + this.catalogFile, e);
+			}
+		}
+		if (catalog.isEmpty()) {
+			if (this.generatedApp == null) {
+				throw new MojoFailureException("Either a generatedApp, generatedApps or a catalogFile must be provided");
+			}
+			ProjectGeneratorProperties generatorProperties = toGeneratorProperties(appBom, toAppDefinition(
+					this.generatedApp, managedDependencies, generatedAppDependencies, sharedDependencies, plugins));
+			generatorProperties.setParallelism(this.parallelism);
+			try {
+				GeneratedFiles generatedFiles = ProjectGenerator.getInstance().generate(generatorProperties);
+				getLog().info(String.format("Generated %s: %s", this.generatedProjectHome, generatedFiles));
+			} catch (IOException e) {
+				throw new MojoFailureException("Project generation failure: " + e.getMessage(), e);
+			}
+			return;
+		}
+
+		if (this.generatedApp != null) {
+			catalog.add(0, this.generatedApp);
+		}
+		Map<String, List<ProjectGeneratorProperties>> groups = new LinkedHashMap<>();
+		for (GeneratedApp catalogApp : catalog) {
+			// the mojo dependencies and plugins are the ones of the generatedApp
+			boolean joining = catalogApp == this.generatedApp;
+			groups.computeIfAbsent(catalogApp.getGroup(), group -> new ArrayList<>()).add(toGeneratorProperties(appBom,
+					toAppDefinition(catalogApp, managedDependencies,
+							joining ? generatedAppDependencies : Collections.emptyList(), sharedDependencies,
+							joining ? plugins : Collections.emptyList())));
+		}
+		try {
+			Map<String, GeneratedFiles> generated = CatalogGenerator.getInstance()
+					.generate(new File(this.generatedProjectHome), this.catalogVersion, groups, this.parallelism);
+			generated.forEach((app, generatedFiles) -> getLog().info(String.format("Generated %s: %s", app, generatedFiles)));
+		} catch (IOException e) {
+			throw new MojoFailureException("Catalog generation failure: " + e.getMessage(), e);
+		}
+	}
+
+	private AppDefinition toAppDefinition(GeneratedApp generatedApp, List<String> managedDependencies,
+			List<String> projectDependencies, List<String> sharedDependencies, List<String> plugins)
+			throws MojoFailureException {
+
+		AppDefinition app = new AppDefinition();
+		app.setName(generatedApp.getName());
+		app.setType(generatedApp.getType());
+		app.setVersion(generatedApp.getVersion());
+		app.setConfigClass(generatedApp.getConfigClass());
+		app.setFunctionDefinition(generatedApp.getFunctionDefinition());
+		if (generatedApp.getFunctionFlavor() != null) {
+			app.setFunctionFlavor(generatedApp.getFunctionFlavor());
+		}
+		if (app.getFunctionFlavor() == AppDefinition.FunctionFlavor.reactive && !app.isReactive()) {
+			getLog().warn(String.format("The %s %s is polled: it stays imperative", app.getName(), app.getType()));
+		}
+		if (app.isVirtualThreads()
+				&& new ComparableVersion(this.bootVersion).compareTo(new ComparableVersion("3.2.0-M1")) < 0) {
+			throw new MojoFailureException(String.format("The virtualThreads function flavor of the %s %s requires "
+					+ "Spring Boot 3.2 or later, bootVersion is %s", app.getName(), app.getType(), this.bootVersion));
+		}
+
+		// Startup
+		app.setLazyInitialization(generatedApp.isLazyInitialization());
+		app.setContextIndexer(generatedApp.isContextIndexer());
+		if (generatedApp.isSpringAot()) {
+			checkSpringAotBootVersion(generatedApp);
+		}
+		app.setSpringAot(generatedApp.isSpringAot());
+		app.setClassDataSharing(generatedApp.isClassDataSharing());
+
+		app.setBenchmark(generatedApp.isBenchmark());
+		app.setMetrics(this.metrics || generatedApp.isMetrics());
+
+		if (!CollectionUtils.isEmpty(this.metadataSourceTypeFilters)) {
+			app.setMetadataSourceTypeFilters(this.metadataSourceTypeFilters);
+		}
+
+		if (!CollectionUtils.isEmpty(this.metadataNameFilters)) {
+			app.setMetadataNameFilters(this.metadataNameFilters);
+		}
+
+		app.setAdditionalProperties(this.additionalAppProperties);
+
+		app.setMavenManagedDependencies(managedDependencies);
+
+		List<String> appDependencies = new ArrayList<>(toDependenciesXml(generatedApp.getDependencies()));
+		appDependencies.addAll(projectDependencies);
+		appDependencies.addAll(sharedDependencies);
+		app.setMavenDependencies(appDependencies);
+
+		app.setMavenPlugins(plugins);
 
 		// Container Image configuration
 		app.setContainerImageFormat(this.containerImage.getFormat());
@@ -249,21 +638,109 @@ public class SpringCloudStreamAppGeneratorMojo extends AbstractMojo {
 			app.setContainerImageOrgName(this.containerImage.getOrgName());
 		}
 
-		app.setContainerImageTag(this.generatedApp.getVersion());
+		app.setContainerImageTag(generatedApp.getVersion());
+		app.setContainerJvmFlags(containerJvmFlags(generatedApp));
+		if (StringUtils.hasText(this.containerImage.getCreationTime())) {
+			app.setContainerImageCreationTime(this.containerImage.getCreationTime());
+		}
+		if (StringUtils.hasText(this.containerImage.getJibVersion())) {
+			app.setContainerImageJibVersion(this.containerImage.getJibVersion());
+		}
+		app.setContainerImageBaseImage(containerImageBaseImage(app));
+		app.setContainerImageLayers(containerImageLayers(app.getContainerImageJibVersion()));
+		return app;
+	}
+
+	private void checkSpringAotBootVersion(GeneratedApp generatedApp) throws MojoFailureException {
+		String bootGeneration = this.springNativeVersion == null ? null :
+				SPRING_NATIVE_BOOT_VERSIONS.get(minorVersion(this.springNativeVersion));
+		if (bootGeneration == null) {
+			throw new MojoFailureException(String.format("The springAot of the %s %s requires a Spring Native version "
+					+ "among %s, springNativeVersion is %s", generatedApp.getName(), generatedApp.getType(),
+					SPRING_NATIVE_BOOT_VERSIONS.keySet(), this.springNativeVersion));
+		}
+		if (!bootGeneration.equals(minorVersion(this.bootVersion))) {
+			throw new MojoFailureException(String.format("The springAot of the %s %s requires Spring Boot %s with "
+					+ "Spring Native %s, bootVersion is %s", generatedApp.getName(), generatedApp.getType(),
+					bootGeneration, this.springNativeVersion, this.bootVersion));
+		}
+	}
+
+	private static String minorVersion(String version) {
+		String[] segments = version.split("\\.");
+		return segments.length < 2 ? version : segments[0] + "." + segments[1];
+	}
+
+	private String containerImageBaseImage(AppDefinition app) throws MojoFailureException {
+		if (!StringUtils.hasText(this.containerImage.getBaseImage())) {
+			return app.isVirtualThreads() || app.isClassDataSharing() ?
+					JAVA_21_BASE_IMAGE : app.getContainerImageBaseImage();
+		}
+		Integer javaVersion = this.containerImage.getBaseImageJavaVersion();
+		if (app.isVirtualThreads() && (javaVersion == null || javaVersion < 21)) {
+			throw new MojoFailureException(String.format("The virtualThreads function flavor of the %s %s requires "
+					+ "a Java 21 base image: set the baseImageJavaVersion of the containerImage to the Java version of "
+					+ "%s", app.getName(), app.getType(), this.containerImage.getBaseImage()));
+		}
+		return this.containerImage.getBaseImage();
+	}
+
+	private List<AppDefinition.ContainerImageLayer> containerImageLayers(String jibVersion) throws MojoFailureException {
+		List<AppDefinition.ContainerImageLayer> layers = new ArrayList<>();
+		if (this.containerImage.isSplitBinderLayer()) {
+			BINDER_LAYER_GLOBS.forEach(glob -> layers.add(new AppDefinition.ContainerImageLayer("binder", glob)));
+		}
+		if (this.containerImage.getExtraLayers() != null) {
+			this.containerImage.getExtraLayers().forEach((name, globs) -> {
+				for (String glob : StringUtils.commaDelimitedListToStringArray(globs)) {
+					if (StringUtils.hasText(glob)) {
+						layers.add(new AppDefinition.ContainerImageLayer(name, glob.trim()));
+					}
+				}
+			});
+		}
+		if (!layers.isEmpty() && new ComparableVersion(jibVersion).compareTo(new ComparableVersion("3.1")) < 0) {
+			throw new MojoFailureException("Splitting the container image layers requires Jib 3.1 or later, not "
+					+ jibVersion + ": set the jibVersion of the containerImage");
+		}
+		return layers;
+	}
 
-		// Generator Properties
+	private List<String> containerJvmFlags(GeneratedApp generatedApp) throws MojoFailureException {
+		String jvmProfile = StringUtils.hasText(generatedApp.getJvmProfile()) ?
+				generatedApp.getJvmProfile() : this.containerImage.getJvmProfile();
+		List<String> jvmFlags = new ArrayList<>();
+		if (StringUtils.hasText(jvmProfile)) {
+			try {
+				jvmFlags.addAll(JvmProfile.of(jvmProfile.trim()).getJvmFlags());
+			} catch (IllegalArgumentException e) {
+				throw new MojoFailureException(e.getMessage(), e);
+			}
+		}
+		if (this.containerImage.getJvmFlags() != null) {
+			jvmFlags.addAll(this.containerImage.getJvmFlags());
+		}
+		return jvmFlags;
+	}
+
+	private ProjectGeneratorProperties toGeneratorProperties(AppBom appBom, AppDefinition app) {
 		ProjectGeneratorProperties generatorProperties = new ProjectGeneratorProperties();
 		generatorProperties.setBinders(this.binders);
 		generatorProperties.setOutputFolder(new File(this.generatedProjectHome));
 		generatorProperties.setAppBom(appBom);
 		generatorProperties.setAppDefinition(app);
 		generatorProperties.setProjectResourcesDirectory(this.projectResourcesDir);
+		generatorProperties.setTemplatesDirectory(this.templatesDirectory);
+		generatorProperties.setResourcesMode(this.resourcesMode);
+		generatorProperties.setWrapperMode(this.wrapperMode);
+		return generatorProperties;
+	}
 
-		try {
-			ProjectGenerator.getInstance().generate(generatorProperties);
-		} catch (IOException e) {
-			throw new MojoFailureException("Project generation failure");
-		}
+	private static List<String> toDependenciesXml(List<Dependency> dependencies) {
+		return dependencies.stream()
+				.map(MavenXmlWriter::toXml)
+				.map(xml -> MavenXmlWriter.indent(xml, 8))
+				.collect(Collectors.toList());
 	}
 
 	/**
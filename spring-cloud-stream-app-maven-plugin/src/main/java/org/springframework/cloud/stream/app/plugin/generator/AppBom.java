@@ -26,6 +26,10 @@ public class AppBom {
 
 	private String appMetadataMavenPluginVersion;
 
+	/**
+	 * Spring Native version, for the apps using the Spring AOT processing.
+	 */
+	private String springNativeVersion;
 
 	public String getSpringBootVersion() {
 		return springBootVersion;
@@ -53,4 +57,17 @@ public class AppBom {
 		return this;
 	}
 
+	public String getSpringNativeVersion() {
+		return springNativeVersion;
+	}
+
+	public void setSpringNativeVersion(String springNativeVersion) {
+		this.springNativeVersion = springNativeVersion;
+	}
+
+	public AppBom withSpringNativeVersion(String springNativeVersion) {
+		this.springNativeVersion = springNativeVersion;
+		return this;
+	}
+
 }
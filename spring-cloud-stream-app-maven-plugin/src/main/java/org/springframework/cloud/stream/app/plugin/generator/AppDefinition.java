@@ -27,6 +27,52 @@ public class AppDefinition {
 
 	public enum AppType {source, processor, sink}
 
+	/**
+	 * How the app function is executed.
+	 */
+	public enum FunctionFlavor {
+
+		/**
+		 * The function is invoked for every message, on the binder thread.
+		 */
+		imperative,
+
+		/**
+		 * The processor or sink function is wrapped into a Flux based one, invoking it for up to
+		 * {@code app.reactive.concurrency} messages at a time. Sources stay imperative.
+		 */
+		reactive,
+
+		/**
+		 * The task executors and the binder listener containers run on virtual threads. Requires Spring Boot 3.2 and
+		 * Java 21.
+		 */
+		virtualThreads
+	}
+
+	/**
+	 * Files of the container image moved to a layer of their own, e.g. {@code /app/libs/kafka-*.jar}.
+	 */
+	public static class ContainerImageLayer {
+
+		private final String name;
+
+		private final String glob;
+
+		public ContainerImageLayer(String name, String glob) {
+			this.name = name;
+			this.glob = glob;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getGlob() {
+			return glob;
+		}
+	}
+
 	private String name;
 
 	private AppType type;
@@ -63,6 +109,70 @@ public class AppDefinition {
 
 	private String containerImageTag = "latest";
 
+	/**
+	 * True adds the Prometheus registry, exposes the metrics and prometheus endpoints, tags the metrics with the app
+	 * name, type and binder, and publishes percentile histograms of the binding and binder timers.
+	 */
+	private boolean metrics = false;
+
+	/**
+	 * True generates a throughput benchmark of the app bindings, run by the benchmark profile of the app POM.
+	 */
+	private boolean benchmark = false;
+
+	/**
+	 * Creation time of the container image: EPOCH, USE_CURRENT_TIMESTAMP or an ISO 8601 date time. The default, EPOCH,
+	 * builds the same image digest for the same app.
+	 */
+	private String containerImageCreationTime = "EPOCH";
+
+	/**
+	 * Base image of the container image, whose JDK also runs the class data sharing training.
+	 */
+	private String containerImageBaseImage = "springcloud/openjdk";
+
+	/**
+	 * Version of the jib-maven-plugin building the container image.
+	 */
+	private String containerImageJibVersion = "2.6.0";
+
+	/**
+	 * Additional layers of the container image, on top of the dependencies, snapshot dependencies, resources and
+	 * classes layers of Jib. They require Jib 3.1+.
+	 */
+	private List<ContainerImageLayer> containerImageLayers = new ArrayList<>();
+
+	/**
+	 * Runtime JVM flags of the container image.
+	 */
+	private List<String> containerJvmFlags = new ArrayList<>();
+
+	private FunctionFlavor functionFlavor = FunctionFlavor.imperative;
+
+	/**
+	 * True sets spring.main.lazy-initialization, so that beans are only created when first needed.
+	 */
+	private boolean lazyInitialization = false;
+
+	/**
+	 * True adds the spring-context-indexer, replacing the class path scanning of components by an index built at
+	 * compile time.
+	 */
+	private boolean contextIndexer = false;
+
+	/**
+	 * True runs the Spring AOT processing of the Spring Native project at build time. Requires the Spring Boot
+	 * generation of the Spring Native version.
+	 */
+	private boolean springAot = false;
+
+	/**
+	 * True creates a class data sharing archive at build time, from a training run of the app, and starts the
+	 * container with it. The training run is a Docker container of the base image, so that the archive comes from the
+	 * JDK of the image: it requires Docker for the build and a JDK 13+ base image.
+	 */
+	private boolean classDataSharing = false;
+
 	public String getName() {
 		return name;
 	}
@@ -187,6 +297,66 @@ public class AppDefinition {
 		this.containerImageTag = containerImageTag;
 	}
 
+	public boolean isMetrics() {
+		return metrics;
+	}
+
+	public void setMetrics(boolean metrics) {
+		this.metrics = metrics;
+	}
+
+	public boolean isBenchmark() {
+		return benchmark;
+	}
+
+	public void setBenchmark(boolean benchmark) {
+		this.benchmark = benchmark;
+	}
+
+	public String getContainerImageCreationTime() {
+		return containerImageCreationTime;
+	}
+
+	public void setContainerImageCreationTime(String containerImageCreationTime) {
+		this.containerImageCreationTime = containerImageCreationTime;
+	}
+
+	public String getContainerImageBaseImage() {
+		return containerImageBaseImage;
+	}
+
+	public void setContainerImageBaseImage(String containerImageBaseImage) {
+		this.containerImageBaseImage = containerImageBaseImage;
+	}
+
+	public String getContainerImageJibVersion() {
+		return containerImageJibVersion;
+	}
+
+	public void setContainerImageJibVersion(String containerImageJibVersion) {
+		this.containerImageJibVersion = containerImageJibVersion;
+	}
+
+	public List<ContainerImageLayer> getContainerImageLayers() {
+		return containerImageLayers;
+	}
+
+	public void setContainerImageLayers(List<ContainerImageLayer> containerImageLayers) {
+		this.containerImageLayers = containerImageLayers;
+	}
+
+	public boolean isContainerImageLayered() {
+		return !containerImageLayers.isEmpty();
+	}
+
+	public List<String> getContainerJvmFlags() {
+		return containerJvmFlags;
+	}
+
+	public void setContainerJvmFlags(List<String> containerJvmFlags) {
+		this.containerJvmFlags = containerJvmFlags;
+	}
+
 	public String getFunctionDefinition() {
 		return functionDefinition;
 	}
@@ -194,4 +364,66 @@ public class AppDefinition {
 	public void setFunctionDefinition(String functionDefinition) {
 		this.functionDefinition = functionDefinition;
 	}
+
+	public FunctionFlavor getFunctionFlavor() {
+		return functionFlavor;
+	}
+
+	public void setFunctionFlavor(FunctionFlavor functionFlavor) {
+		this.functionFlavor = functionFlavor;
+	}
+
+	/**
+	 * Return true if the function of this app is wrapped into a reactive one. Sources are always imperative.
+	 */
+	public boolean isReactive() {
+		return functionFlavor == FunctionFlavor.reactive && type != AppType.source;
+	}
+
+	public boolean isVirtualThreads() {
+		return functionFlavor == FunctionFlavor.virtualThreads;
+	}
+
+	/**
+	 * Return the definition of the function bound to the app input and output: the function definition, or the
+	 * reactive function wrapping it.
+	 */
+	public String getBoundFunctionDefinition() {
+		if (!isReactive()) {
+			return functionDefinition;
+		}
+		return isFunction() ? "reactiveFunction" : "reactiveConsumer";
+	}
+
+	public boolean isLazyInitialization() {
+		return lazyInitialization;
+	}
+
+	public void setLazyInitialization(boolean lazyInitialization) {
+		this.lazyInitialization = lazyInitialization;
+	}
+
+	public boolean isContextIndexer() {
+		return contextIndexer;
+	}
+
+	public void setContextIndexer(boolean contextIndexer) {
+		this.contextIndexer = contextIndexer;
+	}
+
+	public boolean isSpringAot() {
+		return springAot;
+	}
+
+	public void setSpringAot(boolean springAot) {
+		this.springAot = springAot;
+	}
+
+	public boolean isClassDataSharing() {
+		return classDataSharing;
+	}
+
+	public void setClassDataSharing(boolean classDataSharing) {
+		this.classDataSharing = classDataSharing;
+	}
 }
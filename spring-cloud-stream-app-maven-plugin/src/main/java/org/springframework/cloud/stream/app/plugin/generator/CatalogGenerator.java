@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.stream.app.plugin.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.util.Assert;
+
+/**
+ * Generates a catalog of apps in one go. The apps are generated concurrently, each under the directory of its
+ * group, and every group gets a container POM listing the apps containers of its apps:
+ *
+ * <pre>
+ * outputFolder/
+ *   group/pom.xml
+ *   group/name-type/pom.xml
+ *   group/name-type/name-type-binder/pom.xml
+ * </pre>
+ *
+ * <p>The binder projects of each app are generated one after the other: the apps themselves are the unit of
+ * parallelism.</p>
+ *
+ * <p>The files of every app are also recorded in the manifest of the output folder, see {@link GeneratedFiles}: the
+ * projects of the apps removed from the catalog, and their group container POMs, are deleted by the next
+ * generation.</p>
+ */
+public class CatalogGenerator {
+
+	private CatalogGenerator() {
+	}
+
+	public static CatalogGenerator getInstance() {
+		return new CatalogGenerator();
+	}
+
+	/**
+	 * Generate the given apps, by group.
+	 * @param outputFolder the directory of the group directories
+	 * @param version the version of the group container POMs
+	 * @param groups the generator properties of every app, by group. Their output folders are ignored.
+	 * @param parallelism the maximum number of apps generated concurrently
+	 * @return the counts of written, unchanged and deleted files, by app container directory, and for the group
+	 * container POMs and the removed apps under the output folder path
+	 */
+	public Map<String, GeneratedFiles> generate(File outputFolder, String version,
+			Map<String, List<ProjectGeneratorProperties>> groups, int parallelism) throws IOException {
+
+		Assert.notEmpty(groups, "At least one app must be provided");
+
+		GeneratedFiles catalogFiles = new GeneratedFiles(outputFolder);
+		Map<String, ProjectGeneratorProperties> apps = new LinkedHashMap<>();
+		for (Map.Entry<String, List<ProjectGeneratorProperties>> group : groups.entrySet()) {
+			File groupDir = ProjectGenerator.mkdirs(ProjectGenerator.file(outputFolder, group.getKey()));
+			List<String> modules = new ArrayList<>();
+			for (ProjectGeneratorProperties app : group.getValue()) {
+				String module = app.getAppDefinition().getName() + "-" + app.getAppDefinition().getType();
+				Assert.isTrue(!apps.containsKey(group.getKey() + "/" + module), "Duplicate app: " + module);
+				app.setOutputFolder(ProjectGenerator.file(groupDir, module));
+				app.setParallelism(1);
+				apps.put(group.getKey() + "/" + module, app);
+				modules.add(module);
+			}
+			generateGroupPom(catalogFiles, groupDir, group.getKey(), version, modules, group.getValue().get(0));
+		}
+
+		Map<String, GeneratedFiles> generated = new LinkedHashMap<>();
+		generated.put(outputFolder.getPath(), catalogFiles);
+		Map<String, Throwable> failures = new LinkedHashMap<>();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, apps.size())));
+		try {
+			Map<String, Future<GeneratedFiles>> generations = new LinkedHashMap<>();
+			apps.forEach((module, app) ->
+					generations.put(module, executor.submit(() -> ProjectGenerator.getInstance().generate(app))));
+			for (Map.Entry<String, Future<GeneratedFiles>> generation : generations.entrySet()) {
+				try {
+					generated.put(generation.getKey(), generation.getValue().get());
+				}
+				catch (ExecutionException e) {
+					failures.put(generation.getKey(), e.getCause());
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while generating the catalog");
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		if (!failures.isEmpty()) {
+			throw new ProjectGenerationException(failures);
+		}
+		generated.values().forEach(files -> {
+			if (files != catalogFiles) {
+				catalogFiles.include(files);
+			}
+		});
+		catalogFiles.prune();
+		return generated;
+	}
+
+	private void generateGroupPom(GeneratedFiles files, File groupDir, String group, String version,
+			List<String> modules, ProjectGeneratorProperties firstApp) throws IOException {
+
+		Map<String, Object> templateProperties = new HashMap<>();
+		templateProperties.put("group", group);
+		templateProperties.put("version", version != null ? version : firstApp.getAppDefinition().getVersion());
+		templateProperties.put("modules", modules);
+
+		files.write(TemplateRegistry.withOverrides(firstApp.getTemplatesDirectory())
+				.getTemplate("template/catalog-group-pom.xml").execute(templateProperties),
+				ProjectGenerator.file(groupDir, "pom.xml"));
+	}
+}
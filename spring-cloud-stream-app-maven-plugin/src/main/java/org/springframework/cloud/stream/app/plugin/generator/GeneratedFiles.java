@@ -0,0 +1,246 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.stream.app.plugin.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.util.StreamUtils;
+
+/**
+ * Writes the files of a generation under a root directory, leaving the files whose content didn't change untouched,
+ * so that downstream builds only see the apps that actually changed as dirty.
+ *
+ * <p>The paths written are recorded in a {@value #MANIFEST} file at the root. {@link #prune()} deletes the files a
+ * previous generation wrote that this one didn't, such as the projects of removed binders. Files the generator
+ * never wrote, like build outputs, are left alone.</p>
+ *
+ * <p>Changed files are written to a temporary sibling first, then moved in place, atomically where supported:
+ * readers never see a partially written file, and a hard link to a shared file is replaced rather than written
+ * through.</p>
+ *
+ * <p>Safe to use from concurrent binder generations.</p>
+ */
+public class GeneratedFiles {
+
+	static final String MANIFEST = ".generated-files";
+
+	private final Path root;
+
+	private final Set<String> generated = ConcurrentHashMap.newKeySet();
+
+	private final AtomicInteger written = new AtomicInteger();
+
+	private final AtomicInteger unchanged = new AtomicInteger();
+
+	private final AtomicInteger deleted = new AtomicInteger();
+
+	public GeneratedFiles(File root) {
+		this.root = root.toPath().toAbsolutePath().normalize();
+	}
+
+	/**
+	 * Write the given text to the file, unless it already has that content.
+	 */
+	public void write(String content, File file) throws IOException {
+		write(content.getBytes(StandardCharsets.UTF_8), file);
+	}
+
+	/**
+	 * Write the given content to the file, unless it already has that content.
+	 */
+	public void write(byte[] content, File file) throws IOException {
+		Path path = track(file);
+		if (hasContent(path, content)) {
+			this.unchanged.incrementAndGet();
+			return;
+		}
+		Files.createDirectories(path.getParent());
+		// replace the file rather than writing through it, as it may be a hard link to a shared file
+		Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+		try {
+			Files.write(tmp, content);
+			try {
+				Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(tmp);
+			throw e;
+		}
+		this.written.incrementAndGet();
+	}
+
+	/**
+	 * Write the content of the given stream to the file, unless it already has that content.
+	 */
+	public void copy(InputStream content, File file) throws IOException {
+		write(StreamUtils.copyToByteArray(content), file);
+	}
+
+	/**
+	 * Copy every file of the source directory to the target directory, leaving the unchanged ones untouched. Copies
+	 * keep the modification time of their source, so that files with the same size and time are not even read.
+	 */
+	public void copyDirectory(File source, File target) throws IOException {
+		Path sourcePath = source.toPath();
+		for (Path file : listFiles(sourcePath)) {
+			Path copy = target.toPath().resolve(sourcePath.relativize(file).toString());
+			if (Files.isRegularFile(copy) && Files.size(copy) == Files.size(file)
+					&& Files.getLastModifiedTime(copy).equals(Files.getLastModifiedTime(file))) {
+				track(copy.toFile());
+				this.unchanged.incrementAndGet();
+				continue;
+			}
+			write(Files.readAllBytes(file), copy.toFile());
+			Files.setLastModifiedTime(copy, Files.getLastModifiedTime(file));
+		}
+	}
+
+	/**
+	 * Hard link every file of the source directory into the target directory, so that binder projects share their
+	 * resources instead of holding copies of them. Files already linked are left untouched. Files that can't be
+	 * linked, e.g. across file stores, are copied instead.
+	 */
+	public void linkDirectory(File source, File target) throws IOException {
+		Path sourcePath = source.toPath();
+		for (Path file : listFiles(sourcePath)) {
+			link(file.toFile(), target.toPath().resolve(sourcePath.relativize(file).toString()).toFile());
+		}
+	}
+
+	/**
+	 * Hard link the source file to the target one, unless it is already linked. The file is copied instead when it
+	 * can't be linked.
+	 */
+	public void link(File source, File target) throws IOException {
+		Path link = track(target);
+		if (Files.exists(link) && Files.isSameFile(source.toPath(), link)) {
+			this.unchanged.incrementAndGet();
+			return;
+		}
+		Files.createDirectories(link.getParent());
+		Files.deleteIfExists(link);
+		try {
+			Files.createLink(link, source.toPath());
+			this.written.incrementAndGet();
+		}
+		catch (IOException | UnsupportedOperationException e) {
+			write(Files.readAllBytes(source.toPath()), target);
+		}
+	}
+
+	/**
+	 * Record the files of a nested generation, rooted under this one, along with its manifest, so that they are pruned
+	 * by the next generation of this root if the nested one doesn't happen again, e.g. for a removed app.
+	 */
+	public void include(GeneratedFiles files) {
+		track(files.root.resolve(MANIFEST).toFile());
+		files.generated.forEach(path -> track(files.root.resolve(path).toFile()));
+	}
+
+	/**
+	 * Delete the files written by the previous generation but not by this one, along with the directories left empty,
+	 * then record the files of this generation.
+	 * @return the number of deleted files
+	 */
+	public int prune() throws IOException {
+		Path manifest = this.root.resolve(MANIFEST);
+		if (Files.isRegularFile(manifest)) {
+			for (String stale : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+				if (stale.isEmpty() || this.generated.contains(stale)) {
+					continue;
+				}
+				Path file = this.root.resolve(stale).normalize();
+				if (file.startsWith(this.root) && Files.deleteIfExists(file)) {
+					this.deleted.incrementAndGet();
+					deleteEmptyParents(file.getParent());
+				}
+			}
+		}
+		Files.createDirectories(this.root);
+		Files.write(manifest, new TreeSet<>(this.generated), StandardCharsets.UTF_8);
+		return this.deleted.get();
+	}
+
+	public int getWritten() {
+		return this.written.get();
+	}
+
+	public int getUnchanged() {
+		return this.unchanged.get();
+	}
+
+	public int getDeleted() {
+		return this.deleted.get();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d written, %d unchanged, %d deleted", getWritten(), getUnchanged(), getDeleted());
+	}
+
+	private Path track(File file) {
+		Path path = file.toPath().toAbsolutePath().normalize();
+		if (path.startsWith(this.root)) {
+			this.generated.add(this.root.relativize(path).toString().replace(File.separatorChar, '/'));
+		}
+		return path;
+	}
+
+	private void deleteEmptyParents(Path directory) throws IOException {
+		while (directory != null && directory.startsWith(this.root) && !directory.equals(this.root)) {
+			try (Stream<Path> children = Files.list(directory)) {
+				if (children.findAny().isPresent()) {
+					return;
+				}
+			}
+			Files.delete(directory);
+			directory = directory.getParent();
+		}
+	}
+
+	private static List<Path> listFiles(Path directory) throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			return files.filter(Files::isRegularFile).sorted().collect(Collectors.toCollection(ArrayList::new));
+		}
+	}
+
+	private static boolean hasContent(Path file, byte[] content) throws IOException {
+		if (!Files.isRegularFile(file) || Files.size(file) != content.length) {
+			return false;
+		}
+		return Arrays.equals(Files.readAllBytes(file), content);
+	}
+}
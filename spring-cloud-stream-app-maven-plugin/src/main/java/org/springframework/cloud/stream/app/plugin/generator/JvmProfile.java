@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.stream.app.plugin.generator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runtime JVM flags of the generated container images. The heap is sized as a percentage of the container memory
+ * limit, and every profile exits on {@link OutOfMemoryError}, so that the platform restarts the app.
+ */
+public enum JvmProfile {
+
+	/**
+	 * Short, predictable pauses: a fixed size heap, touched at startup, and G1 with a low pause time goal.
+	 */
+	LOW_LATENCY("low-latency",
+			"-XX:InitialRAMPercentage=70.0",
+			"-XX:MaxRAMPercentage=70.0",
+			"-XX:+AlwaysPreTouch",
+			"-XX:+UseG1GC",
+			"-XX:MaxGCPauseMillis=50",
+			"-XX:+ParallelRefProcEnabled",
+			"-Xss1m",
+			"-XX:ReservedCodeCacheSize=240m"),
+
+	/**
+	 * Most of the memory for the heap, collected by the parallel collector.
+	 */
+	THROUGHPUT("throughput",
+			"-XX:InitialRAMPercentage=50.0",
+			"-XX:MaxRAMPercentage=80.0",
+			"-XX:+UseParallelGC",
+			"-Xss1m",
+			"-XX:ReservedCodeCacheSize=240m"),
+
+	/**
+	 * The least memory: half of it for the heap, the serial collector, small thread stacks and the C1 compiler only.
+	 */
+	SMALL_FOOTPRINT("small-footprint",
+			"-XX:MaxRAMPercentage=50.0",
+			"-XX:+UseSerialGC",
+			"-Xss256k",
+			"-XX:TieredStopAtLevel=1",
+			"-XX:CICompilerCount=1",
+			"-XX:ReservedCodeCacheSize=32m");
+
+	private static final List<String> COMMON_FLAGS = Arrays.asList("-XX:+UseContainerSupport",
+			"-XX:+ExitOnOutOfMemoryError");
+
+	private final String profileName;
+
+	private final List<String> jvmFlags;
+
+	JvmProfile(String profileName, String... jvmFlags) {
+		this.profileName = profileName;
+		this.jvmFlags = Collections.unmodifiableList(Arrays.asList(jvmFlags));
+	}
+
+	public String getProfileName() {
+		return profileName;
+	}
+
+	/**
+	 * Return the JVM flags of this profile.
+	 */
+	public List<String> getJvmFlags() {
+		return Collections.unmodifiableList(
+				Stream.concat(COMMON_FLAGS.stream(), this.jvmFlags.stream()).collect(Collectors.toList()));
+	}
+
+	/**
+	 * Return the profile of the given name, such as {@code low-latency}.
+	 * @throws IllegalArgumentException if there is no such profile
+	 */
+	public static JvmProfile of(String profileName) {
+		for (JvmProfile profile : values()) {
+			if (profile.profileName.equalsIgnoreCase(profileName) || profile.name().equalsIgnoreCase(profileName)) {
+				return profile;
+			}
+		}
+		throw new IllegalArgumentException("Unknown JVM profile: " + profileName + ", expected one of "
+				+ Arrays.stream(values()).map(JvmProfile::getProfileName).collect(Collectors.joining(", ")));
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.stream.app.plugin.generator;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reports the app projects that could not be generated, by binder, or by app for catalogs. The failures are also
+ * added as suppressed exceptions, so that none of their stack traces is lost.
+ */
+public class ProjectGenerationException extends IOException {
+
+	private final Map<String, Throwable> failures;
+
+	public ProjectGenerationException(Map<String, Throwable> failures) {
+		super(message(failures));
+		this.failures = Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+		failures.values().forEach(this::addSuppressed);
+	}
+
+	/**
+	 * Return the failures, by binder or app.
+	 */
+	public Map<String, Throwable> getFailures() {
+		return failures;
+	}
+
+	private static String message(Map<String, Throwable> failures) {
+		StringBuilder message = new StringBuilder(String.format("Failed to generate %d app project(s):", failures.size()));
+		failures.forEach((binder, failure) -> message.append(System.lineSeparator())
+				.append(" - ").append(binder).append(": ").append(failure));
+		return message.toString();
+	}
+}
@@ -19,17 +19,22 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.samskivert.mustache.Mustache;
-import com.samskivert.mustache.Template;
-import org.apache.commons.io.FileUtils;
 
 import org.springframework.util.Assert;
 
@@ -38,6 +43,10 @@ import org.springframework.util.Assert;
  */
 public class ProjectGenerator {
 
+	private static final List<String> MAVEN_WRAPPER_FILES = Arrays.asList("mvnw", "mvnw.cmd", ".mvn/jvm.config",
+			".mvn/maven.config", ".mvn/wrapper/maven-wrapper.jar", ".mvn/wrapper/maven-wrapper.properties",
+			".mvn/wrapper/MavenWrapperDownloader.java");
+
 	private ProjectGenerator() {
 	}
 
@@ -45,7 +54,14 @@ public class ProjectGenerator {
 		return new ProjectGenerator();
 	}
 
-	public void generate(ProjectGeneratorProperties generatorProperties) throws IOException {
+	/**
+	 * Generate the apps container project and the app project of every binder. Files are only written when their
+	 * content changed, and the files generated by the previous run but not by this one are deleted.
+	 * @return the counts of written, unchanged and deleted files
+	 */
+	public GeneratedFiles generate(ProjectGeneratorProperties generatorProperties) throws IOException {
+
+		TemplateRegistry templates = TemplateRegistry.withOverrides(generatorProperties.getTemplatesDirectory());
 
 		Map<String, Object> containerTemplateProperties = new HashMap<>();
 		// register {{#capitalize}}...{{/capitalize}} function.
@@ -61,23 +77,86 @@ public class ProjectGenerator {
 		// Generate apps container POM
 		// ---------------------------------
 		File appParentDir = mkdirs(generatorProperties.getOutputFolder());
-		copy(materialize("template/apps-container-pom.xml", containerTemplateProperties),
+		GeneratedFiles files = new GeneratedFiles(appParentDir);
+		files.write(materialize(templates, "template/apps-container-pom.xml", containerTemplateProperties),
 				file(appParentDir, "pom.xml"));
 		// maven wrapper
-		copyMavenWrapper(appParentDir);
+		copyMavenWrapper(files, appParentDir);
 
 		// ---------------------------------
 		// Generate App projects
 		// ---------------------------------
 		Assert.notEmpty(generatorProperties.getBinders(), "At least one Binder must be provided");
-		for (String binder : generatorProperties.getBinders()) {
-			generateAppProject(appParentDir, containerTemplateProperties, generatorProperties.getAppDefinition(),
-					generatorProperties.getProjectResourcesDirectory(), binder);
+		generateAppProjects(templates, files, appParentDir, Collections.unmodifiableMap(containerTemplateProperties),
+				generatorProperties);
+
+		// remove what the previous generation wrote but this one didn't, e.g. the projects of removed binders
+		files.prune();
+		return files;
+	}
+
+	/**
+	 * Generate the app project of every binder, at most {@link ProjectGeneratorProperties#getParallelism()} at a time.
+	 * Each binder gets its own copy of the template properties. A failing binder doesn't stop the others: all the
+	 * failures are reported at once, once every binder is done.
+	 */
+	private void generateAppProjects(TemplateRegistry templates, GeneratedFiles files, File appParentDir,
+			Map<String, Object> containerTemplateProperties, ProjectGeneratorProperties generatorProperties)
+			throws IOException {
+
+		List<String> binders = generatorProperties.getBinders();
+		Map<String, Throwable> failures = new LinkedHashMap<>();
+		int threads = Math.min(generatorProperties.getParallelism(), binders.size());
+		if (threads <= 1) {
+			for (String binder : binders) {
+				try {
+					generateAppProject(templates, files, appParentDir, containerTemplateProperties,
+							generatorProperties.getAppDefinition(), generatorProperties.getProjectResourcesDirectory(),
+							generatorProperties.getResourcesMode(), generatorProperties.getWrapperMode(), binder);
+				}
+				catch (IOException | RuntimeException e) {
+					failures.put(binder, e);
+				}
+			}
+		}
+		else {
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			try {
+				Map<String, Future<?>> generations = new LinkedHashMap<>();
+				for (String binder : binders) {
+					generations.put(binder, executor.submit(() -> {
+						generateAppProject(templates, files, appParentDir, containerTemplateProperties,
+								generatorProperties.getAppDefinition(), generatorProperties.getProjectResourcesDirectory(),
+								generatorProperties.getResourcesMode(), generatorProperties.getWrapperMode(), binder);
+						return null;
+					}));
+				}
+				for (Map.Entry<String, Future<?>> generation : generations.entrySet()) {
+					try {
+						generation.getValue().get();
+					}
+					catch (ExecutionException e) {
+						failures.put(generation.getKey(), e.getCause());
+					}
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while generating the app projects");
+			}
+			finally {
+				executor.shutdownNow();
+			}
+		}
+		if (!failures.isEmpty()) {
+			throw new ProjectGenerationException(failures);
 		}
 	}
 
-	private void generateAppProject(File appRootDirectory, Map<String, Object> containerTemplateProperties,
-			AppDefinition appDefinition, File projectResourcesDirectory, String binder) throws IOException {
+	private void generateAppProject(TemplateRegistry templates, GeneratedFiles files, File appRootDirectory,
+			Map<String, Object> containerTemplateProperties, AppDefinition appDefinition,
+			File projectResourcesDirectory, ProjectGeneratorProperties.ResourcesMode resourcesMode,
+			ProjectGeneratorProperties.WrapperMode wrapperMode, String binder) throws IOException {
 
 		String appClassName = String.format("%s%s%sApplication",
 				camelCase(appDefinition.getName()),
@@ -95,86 +174,87 @@ public class ProjectGenerator {
 		appTemplateProperties.put("app-class-name", appClassName);
 		appTemplateProperties.put("app-package-name", appPackageName);
 		appTemplateProperties.put("app-binder", binder);
+		// e.g. {{#app-binder-kafka}}...{{/app-binder-kafka}} for binder specific sections.
+		appTemplateProperties.put("app-binder-" + binder, true);
 
 		// app POM
 		File appDir =
 				mkdirs(file(appRootDirectory, appDefinition.getName() + "-" + appDefinition.getType() + "-" + binder));
 
-		copy(materialize("template/app-pom.xml", appTemplateProperties), file(appDir, "pom.xml"));
+		if (projectResourcesDirectory != null && projectResourcesDirectory.exists()
+				&& resourcesMode == ProjectGeneratorProperties.ResourcesMode.reference) {
+			appTemplateProperties.put("app-shared-resources",
+					appDir.toPath().toAbsolutePath().relativize(projectResourcesDirectory.toPath().toAbsolutePath())
+							.toString().replace(File.separatorChar, '/'));
+		}
+
+		files.write(materialize(templates, "template/app-pom.xml", appTemplateProperties), file(appDir, "pom.xml"));
 
 		File appMainSrcDir = mkdirs(pkgToDir(appDir, "src.main.java." + appPackageName));
 
 		File appMainResourceDir = mkdirs(pkgToDir(appDir, "src.main.resources"));
 
-		// application.properties
-		copy(materialize("template/app.properties", appTemplateProperties),
-				file(appMainResourceDir, "application.properties"));
+		// share the entire project's src/main/resources directory
+		boolean hasProjectResources = projectResourcesDirectory != null && projectResourcesDirectory.exists();
+		if (hasProjectResources && resourcesMode == ProjectGeneratorProperties.ResourcesMode.copy) {
+			files.copyDirectory(projectResourcesDirectory, appMainResourceDir);
+		}
+		else if (hasProjectResources && resourcesMode == ProjectGeneratorProperties.ResourcesMode.link) {
+			files.linkDirectory(projectResourcesDirectory, appMainResourceDir);
+		}
 
-		// copy the entire project's src/main/resources directory
-		if (projectResourcesDirectory != null && projectResourcesDirectory.exists()) {
-			FileUtils.copyDirectory(projectResourcesDirectory, appMainResourceDir);
+		// application.properties, unless the project provides its own
+		if (!hasProjectResources || !file(projectResourcesDirectory, "application.properties").isFile()) {
+			files.write(materialize(templates, "template/app.properties", appTemplateProperties),
+					file(appMainResourceDir, "application.properties"));
 		}
 
-		copy(materialize("template/App.java", appTemplateProperties),
-					file(appMainSrcDir, appClassName + ".java"));
+		files.write(materialize(templates, "template/App.java", appTemplateProperties),
+				file(appMainSrcDir, appClassName + ".java"));
 
 		// TESTS
 		File appTestSrcDir = mkdirs(pkgToDir(appDir, "src.test.java." + appPackageName));
 
-		copy(materialize("template/AppTests.java", appTemplateProperties),
+		files.write(materialize(templates, "template/AppTests.java", appTemplateProperties),
 				file(appTestSrcDir, appClassName + "Tests.java"));
 
+		if (appDefinition.isBenchmark()) {
+			files.write(materialize(templates, "template/AppBenchmark.java", appTemplateProperties),
+					file(appTestSrcDir, appClassName + "Benchmark.java"));
+		}
+
 		// README
-		copy(materialize("template/README.adoc", appTemplateProperties),
+		files.write(materialize(templates, "template/README.adoc", appTemplateProperties),
 				file(appDir, "README.adoc"));
 
-		// maven wrapper
-		copyMavenWrapper(appDir);
+		// maven wrapper, unless the app projects use the container one
+		if (wrapperMode == ProjectGeneratorProperties.WrapperMode.copy) {
+			copyMavenWrapper(files, appDir);
+		}
+		else if (wrapperMode == ProjectGeneratorProperties.WrapperMode.link) {
+			for (String wrapperFile : MAVEN_WRAPPER_FILES) {
+				files.link(file(appRootDirectory, wrapperFile), file(appDir, wrapperFile));
+			}
+			file(appDir, "mvnw").setExecutable(true);
+		}
 	}
 
-	private void copyMavenWrapper(File appDir) throws IOException {
-
-		// mvnw
-		copyResource("template/mvnw", file(appDir, "mvnw"));
+	private void copyMavenWrapper(GeneratedFiles files, File appDir) throws IOException {
+		for (String wrapperFile : MAVEN_WRAPPER_FILES) {
+			copyResource(files, "template/" + wrapperFile, file(appDir, wrapperFile));
+		}
 		file(appDir, "mvnw").setExecutable(true);
-
-		copyResource("template/mvnw.cmd", file(appDir, "mvnw.cmd"));
-
-		File dotMavenDir = mkdirs(new File(appDir, ".mvn"));
-
-		// .mvn/jvm.config
-		copyResource("template/.mvn/jvm.config", file(dotMavenDir, "jvm.config"));
-
-		// .mvn/maven.config
-		copyResource("template/.mvn/maven.config", file(dotMavenDir, "maven.config"));
-
-		File dotMavenWrapper = mkdirs(file(appDir, ".mvn/wrapper"));
-
-		// .mvn/wrapper/maven-wrapper.jar
-		copyResource("template/.mvn/wrapper/maven-wrapper.jar",
-				file(dotMavenWrapper, "maven-wrapper.jar"));
-
-		// .mvn/wrapper/maven-wrapper.properties
-		copyResource("template/.mvn/wrapper/maven-wrapper.properties",
-				file(dotMavenWrapper, "maven-wrapper.properties"));
-
-		// .mvn/wrapper/MavenWrapperDownloader.java
-		copyResource("template/.mvn/wrapper/MavenWrapperDownloader.java",
-				file(dotMavenWrapper, "MavenWrapperDownloader.java"));
 	}
 
-	private String materialize(String templatePath, Map<String, Object> templateProperties) throws IOException {
-		try (InputStreamReader resourcesTemplateReader = new InputStreamReader(
-				Objects.requireNonNull(this.getClass().getClassLoader().getResourceAsStream(templatePath)))) {
-			Template resourceTemplate = Mustache.compiler().escapeHTML(false).compile(resourcesTemplateReader);
-			return resourceTemplate.execute(templateProperties);
-		}
+	private String materialize(TemplateRegistry templates, String templatePath, Map<String, Object> templateProperties)
+			throws IOException {
+		return templates.getTemplate(templatePath).execute(templateProperties);
 	}
 
-	private void copyResource(String resourcePath, File toFile) throws IOException {
+	private void copyResource(GeneratedFiles files, String resourcePath, File toFile) throws IOException {
 		try (InputStream resourcesStream =
 					 Objects.requireNonNull(this.getClass().getClassLoader().getResourceAsStream(resourcePath))) {
-			Files.copy(resourcesStream, toFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			files.copy(resourcesStream, toFile);
 		}
 	}
 
@@ -23,6 +23,50 @@ import java.util.List;
  */
 public class ProjectGeneratorProperties {
 
+	/**
+	 * How the project's resources are shared with the generated binder app projects.
+	 */
+	public enum ResourcesMode {
+
+		/**
+		 * Copy the resources into each app project.
+		 */
+		copy,
+
+		/**
+		 * Hard link the resources into each app project, falling back to copies where links are not supported.
+		 */
+		link,
+
+		/**
+		 * Don't copy the resources: each app POM declares the project's resources directory as an additional one,
+		 * relative to the app project, so that the generated projects can't be moved without the source project.
+		 */
+		reference
+	}
+
+	/**
+	 * Where the Maven wrapper is generated.
+	 */
+	public enum WrapperMode {
+
+		/**
+		 * A copy of the wrapper in the apps container and in each app project.
+		 */
+		copy,
+
+		/**
+		 * The wrapper in the apps container, hard linked into each app project where links are supported.
+		 */
+		link,
+
+		/**
+		 * The wrapper in the apps container only: the app projects are built with the container's {@code mvnw},
+		 * which finds the container {@code .mvn} directory as the multi module project directory.
+		 */
+		container
+	}
+
 	/**
 	 * Common pom versions
 	 */
@@ -48,6 +92,26 @@ public class ProjectGeneratorProperties {
 	 */
 	private File projectResourcesDirectory;
 
+	/**
+	 * Optional directory of templates overriding the bundled ones, laid out like the plugin's template directory.
+	 */
+	private File templatesDirectory;
+
+	/**
+	 * Maximum number of binder app projects generated concurrently. One or less generates them one at a time.
+	 */
+	private int parallelism = 1;
+
+	/**
+	 * How the project's src/main/resources directory is shared with the app projects.
+	 */
+	private ResourcesMode resourcesMode = ResourcesMode.copy;
+
+	/**
+	 * Where the Maven wrapper is generated.
+	 */
+	private WrapperMode wrapperMode = WrapperMode.copy;
+
 	public File getOutputFolder() {
 		return outputFolder;
 	}
@@ -87,4 +151,36 @@ public class ProjectGeneratorProperties {
 	public void setProjectResourcesDirectory(File projectResourcesDirectory) {
 		this.projectResourcesDirectory = projectResourcesDirectory;
 	}
+
+	public File getTemplatesDirectory() {
+		return templatesDirectory;
+	}
+
+	public void setTemplatesDirectory(File templatesDirectory) {
+		this.templatesDirectory = templatesDirectory;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	public ResourcesMode getResourcesMode() {
+		return resourcesMode;
+	}
+
+	public void setResourcesMode(ResourcesMode resourcesMode) {
+		this.resourcesMode = resourcesMode;
+	}
+
+	public WrapperMode getWrapperMode() {
+		return wrapperMode;
+	}
+
+	public void setWrapperMode(WrapperMode wrapperMode) {
+		this.wrapperMode = wrapperMode;
+	}
 }
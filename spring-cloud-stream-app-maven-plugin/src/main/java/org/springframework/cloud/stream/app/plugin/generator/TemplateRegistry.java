@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.stream.app.plugin.generator;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+
+/**
+ * Compiles the generator Mustache templates lazily, once per JVM, and hands out the compiled {@link Template}s, which
+ * are safe to execute concurrently.
+ *
+ * <p>Templates are looked up in the {@code template} directory of the plugin class path. A registry can also be
+ * given an overrides directory, laid out like that {@code template} directory: templates found there take
+ * precedence and are cached the same way, until the override file changes.</p>
+ *
+ * @see #getDefault()
+ * @see #withOverrides(File)
+ */
+public final class TemplateRegistry {
+
+	private static final String TEMPLATE_ROOT = "template/";
+
+	private static final TemplateRegistry DEFAULT = new TemplateRegistry(null);
+
+	private static final Map<File, TemplateRegistry> OVERRIDDEN = new ConcurrentHashMap<>();
+
+	private final Mustache.Compiler compiler = Mustache.compiler().escapeHTML(false);
+
+	private final File overridesDirectory;
+
+	private final Map<String, CompiledTemplate> templates = new ConcurrentHashMap<>();
+
+	private TemplateRegistry(File overridesDirectory) {
+		this.overridesDirectory = overridesDirectory;
+	}
+
+	/**
+	 * Return the registry of the templates bundled with the plugin.
+	 */
+	public static TemplateRegistry getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Return the registry for the given overrides directory, falling back to the bundled templates.
+	 * @param overridesDirectory the directory of the user supplied templates, may be {@code null}
+	 */
+	public static TemplateRegistry withOverrides(File overridesDirectory) {
+		if (overridesDirectory == null || !overridesDirectory.isDirectory()) {
+			return DEFAULT;
+		}
+		return OVERRIDDEN.computeIfAbsent(overridesDirectory.getAbsoluteFile(), TemplateRegistry::new);
+	}
+
+	/**
+	 * Return the compiled template at the given class path location, such as {@code template/app-pom.xml}.
+	 */
+	public Template getTemplate(String templatePath) throws IOException {
+		File override = getOverride(templatePath);
+		long lastModified = override != null ? override.lastModified() : 0;
+		CompiledTemplate cached = this.templates.get(templatePath);
+		if (cached != null && cached.lastModified == lastModified) {
+			return cached.template;
+		}
+		try {
+			return this.templates.compute(templatePath, (path, compiled) ->
+					compiled != null && compiled.lastModified == lastModified ?
+							compiled : new CompiledTemplate(compile(path, override), lastModified)).template;
+		}
+		catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private File getOverride(String templatePath) {
+		if (this.overridesDirectory == null || !templatePath.startsWith(TEMPLATE_ROOT)) {
+			return null;
+		}
+		File override = new File(this.overridesDirectory, templatePath.substring(TEMPLATE_ROOT.length()));
+		return override.isFile() ? override : null;
+	}
+
+	private Template compile(String templatePath, File override) {
+		try (InputStream is = override != null ? new FileInputStream(override) :
+				getClass().getClassLoader().getResourceAsStream(templatePath)) {
+			if (is == null) {
+				throw new IOException("Template not found: " + templatePath);
+			}
+			try (Reader reader = new InputStreamReader(is, StandardCharsets.UTF_8)) {
+				return this.compiler.compile(reader);
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static final class CompiledTemplate {
+
+		private final Template template;
+
+		private final long lastModified;
+
+		private CompiledTemplate(Template template, long lastModified) {
+			this.template = template;
+			this.lastModified = lastModified;
+		}
+	}
+}
@@ -16,16 +16,198 @@
 
 package {{app-package-name}};
 
+{{#app.reactive}}
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+{{/app.reactive}}
+{{#app.reactive}}
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+{{#app.consumer}}
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+{{/app.consumer}}
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+{{/app.reactive}}
+{{#app.reactive}}
+import org.springframework.beans.factory.annotation.Value;
+{{/app.reactive}}
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+{{#app.reactive}}
+import org.springframework.cloud.function.context.FunctionCatalog;
+{{/app.reactive}}
+{{#app.virtualThreads}}
+import org.springframework.cloud.stream.config.ListenerContainerCustomizer;
+{{/app.virtualThreads}}
+{{#app.classDataSharing}}
+import org.springframework.context.LifecycleProcessor;
+{{/app.classDataSharing}}
+{{#app.reactive}}
+import org.springframework.context.annotation.Bean;
+{{/app.reactive}}
+{{^app.reactive}}
+{{#app.virtualThreads}}
+import org.springframework.context.annotation.Bean;
+{{/app.virtualThreads}}
+{{/app.reactive}}
 import org.springframework.context.annotation.Import;
+{{#app.classDataSharing}}
+import org.springframework.context.support.AbstractApplicationContext;
+{{/app.classDataSharing}}
+{{#app.virtualThreads}}
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+{{/app.virtualThreads}}
+{{#app.reactive}}
+import org.springframework.messaging.Message;
+{{/app.reactive}}
 
 
 @SpringBootApplication
 @Import({ {{app.configClass}} })
 public class {{app-class-name}} {
+	{{#app.reactive}}
+
+	private static final Log logger = LogFactory.getLog({{app-class-name}}.class);
+	{{/app.reactive}}
 
 	public static void main(String[] args) {
+		{{#app.classDataSharing}}
+		SpringApplication application = new SpringApplication({{app-class-name}}.class);
+		if (Boolean.getBoolean("app.cds.training")) {
+			// class data sharing training run: every bean is created but nothing is started, e.g. no binding nor web
+			// server, so that no broker is needed. The archive is written when the JVM exits.
+			application.addInitializers(context -> context.getBeanFactory().registerSingleton(
+					AbstractApplicationContext.LIFECYCLE_PROCESSOR_BEAN_NAME, new TrainingLifecycleProcessor()));
+			System.exit(SpringApplication.exit(application.run(args)));
+		}
+		application.run(args);
+		{{/app.classDataSharing}}
+		{{^app.classDataSharing}}
 		SpringApplication.run({{app-class-name}}.class, args);
+		{{/app.classDataSharing}}
+	}
+	{{#app.reactive}}
+	{{#app.function}}
+
+	/**
+	 * Applies the {{app.functionDefinition}} function to up to app.reactive.concurrency messages at a time, keeping
+	 * their order. A message the function fails on is logged and dropped, the others keep flowing.
+	 */
+	@Bean
+	@SuppressWarnings("unchecked")
+	public Function<Flux<Message<byte[]>>, Flux<Message<byte[]>>> reactiveFunction(FunctionCatalog functionCatalog,
+			@Value("${app.reactive.function-definition}") String functionDefinition,
+			@Value("${app.reactive.concurrency:16}") int concurrency) {
+		Function<Message<byte[]>, Message<byte[]>> function =
+				functionCatalog.lookup(functionDefinition, "application/json");
+		return messages -> messages.flatMapSequential(message -> Mono.fromCallable(() -> function.apply(message))
+				.subscribeOn(Schedulers.boundedElastic())
+				.onErrorResume(error -> dropped(message, error)), concurrency);
+	}
+	{{/app.function}}
+	{{#app.consumer}}
+
+	/**
+	 * The subscriptions of the reactive consumer, disposed with the context.
+	 */
+	@Bean(destroyMethod = "dispose")
+	public Disposable.Composite reactiveSubscriptions() {
+		return Disposables.composite();
+	}
+
+	/**
+	 * Applies the {{app.functionDefinition}} consumer to up to app.reactive.concurrency messages at a time. A message
+	 * the consumer fails on is logged and dropped, the others keep flowing.
+	 */
+	@Bean
+	@SuppressWarnings("unchecked")
+	public Consumer<Flux<Message<byte[]>>> reactiveConsumer(FunctionCatalog functionCatalog,
+			Disposable.Composite reactiveSubscriptions,
+			@Value("${app.reactive.function-definition}") String functionDefinition,
+			@Value("${app.reactive.concurrency:16}") int concurrency) {
+		Function<Message<byte[]>, Object> consumer = functionCatalog.lookup(functionDefinition);
+		return messages -> reactiveSubscriptions.add(messages
+				.flatMap(message -> Mono.fromRunnable(() -> consumer.apply(message))
+						.subscribeOn(Schedulers.boundedElastic())
+						.onErrorResume(error -> dropped(message, error)), concurrency)
+				.subscribe(null, error -> logger.error("The reactiveConsumer subscription terminated", error)));
+	}
+	{{/app.consumer}}
+
+	/**
+	 * Log a message the function failed on and drop it: the binder does not retry the messages of a reactive
+	 * function, nor send them to a dead letter queue.
+	 */
+	private static <T> Mono<T> dropped(Message<byte[]> message, Throwable error) {
+		logger.error("Dropping message " + message.getHeaders().getId() + ", the function failed on it", error);
+		return Mono.empty();
+	}
+	{{/app.reactive}}
+	{{#app.virtualThreads}}
+	{{#app-binder-kafka}}
+
+	/**
+	 * Runs the binder listener containers on virtual threads, spring.threads.virtual.enabled only applies to the
+	 * containers of the Spring Boot container factories.
+	 */
+	@Bean
+	public ListenerContainerCustomizer<org.springframework.kafka.listener.AbstractMessageListenerContainer<?, ?>>
+			virtualThreadsListenerContainerCustomizer() {
+		return (container, destination, group) -> container.getContainerProperties()
+				.setListenerTaskExecutor(virtualThreadsExecutor(destination));
+	}
+	{{/app-binder-kafka}}
+	{{#app-binder-rabbit}}
+
+	/**
+	 * Runs the binder listener containers on virtual threads, spring.threads.virtual.enabled only applies to the
+	 * containers of the Spring Boot container factories.
+	 */
+	@Bean
+	public ListenerContainerCustomizer<org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer>
+			virtualThreadsListenerContainerCustomizer() {
+		return (container, destination, group) -> container.setTaskExecutor(virtualThreadsExecutor(destination));
+	}
+	{{/app-binder-rabbit}}
+
+	private static SimpleAsyncTaskExecutor virtualThreadsExecutor(String destination) {
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(destination + "-");
+		executor.setVirtualThreads(true);
+		return executor;
+	}
+	{{/app.virtualThreads}}
+	{{#app.classDataSharing}}
+
+	/**
+	 * Starts nothing, like the lifecycle processor of a context that is only refreshed.
+	 */
+	private static class TrainingLifecycleProcessor implements LifecycleProcessor {
+
+		@Override
+		public void onRefresh() {
+		}
+
+		@Override
+		public void onClose() {
+		}
+
+		@Override
+		public void start() {
+		}
+
+		@Override
+		public void stop() {
+		}
+
+		@Override
+		public boolean isRunning() {
+			return false;
+		}
 	}
+	{{/app.classDataSharing}}
 }
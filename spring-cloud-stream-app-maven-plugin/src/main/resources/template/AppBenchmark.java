@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package {{app-package-name}};
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.binder.test.InputDestination;
+import org.springframework.cloud.stream.binder.test.OutputDestination;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Sends messages through the {{app.functionDefinition}} bindings, over the test binder, and reports the throughput and
+ * latency percentiles. Run with {@code ./mvnw test -Pbenchmark}, tuned by the {@code benchmark.messages},
+ * {@code benchmark.warmup} and {@code benchmark.payload} system properties.
+ *
+ * <p>What the latency measures depends on the kind of app, and is reported with it: the round trip of a message for
+ * processors, the {@code input.send} call for sinks, which returns once the function has handled the message since
+ * the test binder is synchronous, and the wait between two messages for sources. Sources are polled: each poll
+ * drains up to {@code benchmark.messages-per-poll} messages (1000 by default), so that the poller delay does not
+ * cap the throughput.</p>
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+		"spring.cloud.stream.default-binder=integration",
+		"spring.cloud.stream.poller.fixed-delay=1",
+		"spring.cloud.stream.poller.max-messages-per-poll=${benchmark.messages-per-poll:1000}" })
+@Import(TestChannelBinderConfiguration.class)
+public class {{app-class-name}}Benchmark {
+
+	private static final int MESSAGES = Integer.getInteger("benchmark.messages", 100000);
+
+	private static final int WARMUP = Integer.getInteger("benchmark.warmup", 10000);
+
+	{{#app.supplier}}
+	private static final String LATENCY = "wait for the next message from the output binding";
+	{{/app.supplier}}
+	{{#app.function}}
+	private static final String LATENCY = "round trip from input.send to output.receive";
+	{{/app.function}}
+	{{#app.consumer}}
+	private static final String LATENCY = "input.send call, the function handles the message before it returns";
+	{{/app.consumer}}
+
+	private static final byte[] PAYLOAD = System.getProperty("benchmark.payload", "benchmark")
+			.getBytes(StandardCharsets.UTF_8);
+
+	@Autowired
+	private InputDestination input;
+
+	@Autowired
+	private OutputDestination output;
+
+	@Test
+	public void throughput() throws Exception {
+		for (int i = 0; i < WARMUP; i++) {
+			exchange();
+		}
+		long[] latencies = new long[MESSAGES];
+		long start = System.nanoTime();
+		for (int i = 0; i < MESSAGES; i++) {
+			long sent = System.nanoTime();
+			exchange();
+			latencies[i] = System.nanoTime() - sent;
+		}
+		long elapsed = System.nanoTime() - start;
+		report(latencies, elapsed);
+	}
+
+	/**
+	 * Exchange one message with the app, through its bindings.
+	 */
+	private void exchange() {
+		{{#app.supplier}}
+		receive();
+		{{/app.supplier}}
+		{{#app.function}}
+		this.input.send(MessageBuilder.withPayload(PAYLOAD).build());
+		receive();
+		{{/app.function}}
+		{{#app.consumer}}
+		this.input.send(MessageBuilder.withPayload(PAYLOAD).build());
+		{{/app.consumer}}
+	}
+
+	private Message<byte[]> receive() {
+		Message<byte[]> message = this.output.receive(10000);
+		if (message == null) {
+			throw new IllegalStateException("No message received from the output binding");
+		}
+		return message;
+	}
+
+	private void report(long[] latencies, long elapsed) throws Exception {
+		Arrays.sort(latencies);
+		String report = String.format("{%n"
+						+ "  \"app\": \"%s\",%n"
+						+ "  \"messages\": %d,%n"
+						+ "  \"messagesPerSecond\": %.1f,%n"
+						+ "  \"latency\": \"%s\",%n"
+						+ "  \"latencyMicros\": { \"p50\": %.1f, \"p90\": %.1f, \"p99\": %.1f, \"p999\": %.1f, \"max\": %.1f }%n"
+						+ "}%n",
+				getClass().getSimpleName(), MESSAGES, MESSAGES / (elapsed / 1e9), LATENCY,
+				percentile(latencies, 0.5), percentile(latencies, 0.9), percentile(latencies, 0.99),
+				percentile(latencies, 0.999), latencies[latencies.length - 1] / 1e3);
+		System.out.print(report);
+		File results = new File("target/benchmark/" + getClass().getSimpleName() + ".json");
+		results.getParentFile().mkdirs();
+		Files.write(results.toPath(), report.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static double percentile(long[] sortedLatencies, double percentile) {
+		int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+		return sortedLatencies[Math.max(0, index)] / 1e3;
+	}
+}
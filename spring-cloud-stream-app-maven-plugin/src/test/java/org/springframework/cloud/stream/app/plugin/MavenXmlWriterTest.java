@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.stream.app.plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.maven.model.Dependency;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MavenXmlWriterTest {
+
+	@Test
+	public void dependencyToXml() {
+		Dependency dependency = new Dependency();
+		dependency.setGroupId("io.pivotal.java.function");
+		dependency.setArtifactId("log-consumer");
+
+		String xml = MavenXmlWriter.toXml(dependency);
+		assertThat(xml).isEqualTo("<dependency>\n  <groupId>io.pivotal.java.function</groupId>\n"
+				+ "  <artifactId>log-consumer</artifactId>\n</dependency>\n");
+		assertThat(MavenXmlWriter.toXml(dependency)).isEqualTo(xml);
+	}
+
+	@Test
+	public void nestedWrites() {
+		Dependency dependency = new Dependency();
+		dependency.setGroupId("io.pivotal.java.function");
+		dependency.setArtifactId("log-consumer");
+		String expected = MavenXmlWriter.toXml(dependency);
+
+		String[] nested = new String[1];
+		String xml = MavenXmlWriter.write(serializer -> {
+			nested[0] = MavenXmlWriter.toXml(dependency);
+			MavenXmlWriter.invokeMavenXppWriteMethod(dependency, "writeDependency", "dependency", serializer);
+		});
+		assertThat(nested[0]).isEqualTo(expected);
+		assertThat(xml).isEqualTo(expected);
+	}
+
+	@Test
+	public void failedWriteDoesNotAffectTheNextOnes() {
+		Dependency dependency = new Dependency();
+		dependency.setGroupId("io.pivotal.java.function");
+		dependency.setArtifactId("log-consumer");
+		String expected = MavenXmlWriter.toXml(dependency);
+
+		assertThatThrownBy(() -> MavenXmlWriter.write(serializer -> {
+			MavenXmlWriter.invokeMavenXppWriteMethod(dependency, "writeDependency", "dependency", serializer);
+			throw new IllegalArgumentException("half written");
+		})).isInstanceOf(IllegalStateException.class).hasRootCauseInstanceOf(IllegalArgumentException.class);
+
+		assertThat(MavenXmlWriter.toXml(dependency)).isEqualTo(expected);
+	}
+
+	@Test
+	public void concurrentWrites() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				Dependency dependency = new Dependency();
+				dependency.setGroupId("io.pivotal.java.function");
+				dependency.setArtifactId("function-" + i);
+				String expected = "<dependency>\n  <groupId>io.pivotal.java.function</groupId>\n"
+						+ "  <artifactId>function-" + i + "</artifactId>\n</dependency>\n";
+				results.add(executor.submit(() -> MavenXmlWriter.toXml(dependency).equals(expected)));
+			}
+			for (Future<Boolean> result : results) {
+				assertThat(result.get()).isTrue();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void indent() {
+		assertThat(MavenXmlWriter.indent("<a>\n  <b/>\n</a>\n", 4)).isEqualTo("<a>\n      <b/>\n    </a>");
+	}
+}
@@ -21,6 +21,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.List;
 
@@ -28,7 +29,9 @@ import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Parent;
 import org.apache.maven.model.Plugin;
+import org.apache.maven.model.Resource;
 import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.plugin.MojoFailureException;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.junit.Before;
 import org.junit.Rule;
@@ -36,9 +39,12 @@ import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import org.springframework.cloud.stream.app.plugin.generator.AppDefinition;
+import org.springframework.cloud.stream.app.plugin.generator.ProjectGenerationException;
+import org.springframework.cloud.stream.app.plugin.generator.ProjectGeneratorProperties;
 import org.springframework.util.ReflectionUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 
 /**
@@ -133,6 +139,441 @@ public class SpringCloudStreamAppGeneratorMojoTest {
 		assertGeneratedPomXml(new File(projectHome.getRoot().getAbsolutePath()));
 	}
 
+	@Test
+	public void testParallelGeneration() throws Exception {
+
+		setMojoProperty("parallelism", 2);
+
+		this.springCloudStreamAppMojo.execute();
+
+		assertGeneratedPomXml(new File(projectHome.getRoot().getAbsolutePath()));
+		assertThat(new File(projectHome.getRoot(), "log-sink-rabbit/pom.xml")).exists();
+	}
+
+	@Test
+	public void testFailingBinderDoesNotStopTheOthers() throws Exception {
+
+		// the kafka app README refers to a missing template property
+		File templates = projectHome.newFolder("templates");
+		Files.write(new File(templates, "README.adoc").toPath(),
+				"= {{app-binder}}\n{{#app-binder-kafka}}{{missing-property}}{{/app-binder-kafka}}\n".getBytes());
+		setMojoProperty("templatesDirectory", templates);
+		File appsHome = projectHome.newFolder("apps");
+		setMojoProperty("generatedProjectHome", appsHome.getAbsolutePath());
+		setMojoProperty("parallelism", 2);
+
+		assertThatThrownBy(() -> this.springCloudStreamAppMojo.execute())
+				.isInstanceOf(MojoFailureException.class)
+				.hasMessageContaining("kafka")
+				.hasCauseInstanceOf(ProjectGenerationException.class)
+				.satisfies(e -> {
+					ProjectGenerationException cause = (ProjectGenerationException) e.getCause();
+					assertThat(cause.getFailures()).containsOnlyKeys("kafka");
+					assertThat(cause.getSuppressed()).containsExactly(cause.getFailures().get("kafka"));
+				});
+
+		assertThat(new File(appsHome, "log-sink-rabbit/pom.xml")).exists();
+		assertThat(new String(Files.readAllBytes(new File(appsHome, "log-sink-rabbit/README.adoc").toPath())))
+				.startsWith("= rabbit");
+		assertThat(new File(appsHome, "log-sink-rabbit/src/main/java/org/springframework/cloud/stream/app/"
+				+ "log/sink/rabbit/LogSinkRabbitApplication.java")).exists();
+	}
+
+	@Test
+	public void testReferencedProjectResources() throws Exception {
+
+		File resources = projectHome.newFolder("resources");
+		Files.write(new File(resources, "lookup.csv").toPath(), "a,b".getBytes());
+		setMojoProperty("projectResourcesDir", resources);
+		setMojoProperty("resourcesMode", ProjectGeneratorProperties.ResourcesMode.reference);
+		File appsHome = projectHome.newFolder("apps");
+		setMojoProperty("generatedProjectHome", appsHome.getAbsolutePath());
+
+		this.springCloudStreamAppMojo.execute();
+
+		assertThat(getModel(appsHome).getBuild().getResources().stream().map(Resource::getDirectory))
+				.containsExactly("src/main/resources", "${project.basedir}/../../resources");
+		assertThat(new File(appsHome, "log-sink-kafka/src/main/resources/lookup.csv")).doesNotExist();
+		assertThat(new File(appsHome, "log-sink-kafka/src/main/resources/application.properties")).exists();
+	}
+
+	@Test
+	public void testLinkedProjectResources() throws Exception {
+
+		File resources = projectHome.newFolder("resources");
+		File lookup = new File(resources, "lookup.csv");
+		Files.write(lookup.toPath(), "a,b".getBytes());
+		setMojoProperty("projectResourcesDir", resources);
+		setMojoProperty("resourcesMode", ProjectGeneratorProperties.ResourcesMode.link);
+		File appsHome = projectHome.newFolder("apps");
+		setMojoProperty("generatedProjectHome", appsHome.getAbsolutePath());
+
+		this.springCloudStreamAppMojo.execute();
+
+		for (String binder : Arrays.asList("kafka", "rabbit")) {
+			File linked = new File(appsHome, "log-sink-" + binder + "/src/main/resources/lookup.csv");
+			assertThat(Files.isSameFile(linked.toPath(), lookup.toPath())).isTrue();
+		}
+		assertThat(getModel(appsHome).getBuild().getResources()).isEmpty();
+	}
+
+	@Test
+	public void testContainerMavenWrapper() throws Exception {
+
+		setMojoProperty("wrapperMode", ProjectGeneratorProperties.WrapperMode.container);
+
+		this.springCloudStreamAppMojo.execute();
+
+		assertThat(new File(projectHome.getRoot(), "mvnw")).exists();
+		assertThat(new File(projectHome.getRoot(), ".mvn/wrapper/maven-wrapper.jar")).exists();
+		assertThat(new File(projectHome.getRoot(), "log-sink-kafka/mvnw")).doesNotExist();
+		assertThat(new File(projectHome.getRoot(), "log-sink-kafka/.mvn")).doesNotExist();
+	}
+
+	@Test
+	public void testCatalogGeneration() throws Exception {
+
+		SpringCloudStreamAppGeneratorMojo.GeneratedApp timeSource = new SpringCloudStreamAppGeneratorMojo.GeneratedApp();
+		timeSource.setName("time");
+		timeSource.setType(AppDefinition.AppType.source);
+		timeSource.setVersion("3.0.0.BUILD-SNAPSHOT");
+		timeSource.setConfigClass("io.pivotal.java.function.time.supplier.TimeSupplierConfiguration.class");
+		setMojoProperty("generatedApps", Arrays.asList(timeSource));
+
+		File catalogFile = projectHome.newFile("catalog.properties");
+		Files.write(catalogFile.toPath(), Arrays.asList(
+				"counter-sink.name=counter",
+				"counter-sink.type=sink",
+				"counter-sink.version=3.0.0.BUILD-SNAPSHOT",
+				"counter-sink.config-class=io.pivotal.java.function.counter.consumer.CounterConsumerConfiguration.class",
+				"counter-sink.dependencies=io.pivotal.java.function:counter-consumer:1.0.0.BUILD-SNAPSHOT"));
+		setMojoProperty("catalogFile", catalogFile);
+		File catalogHome = projectHome.newFolder("catalog");
+		setMojoProperty("generatedProjectHome", catalogHome.getAbsolutePath());
+		setMojoProperty("parallelism", 2);
+
+		this.springCloudStreamAppMojo.execute();
+
+		// the generatedApp joins the catalog
+		assertGeneratedPomXml(new File(catalogHome, "sink/log-sink"));
+		assertThat(new File(catalogHome, "sink/pom.xml")).exists();
+		assertThat(new String(Files.readAllBytes(new File(catalogHome, "sink/pom.xml").toPath())))
+				.contains("<module>log-sink</module>", "<module>counter-sink</module>");
+		assertThat(new File(catalogHome, "sink/counter-sink/counter-sink-rabbit/pom.xml")).exists();
+		// the mojo dependencies only belong to the generatedApp
+		assertThat(new String(Files.readAllBytes(new File(catalogHome, "sink/counter-sink/counter-sink-kafka/pom.xml").toPath())))
+				.contains("<artifactId>counter-consumer</artifactId>")
+				.doesNotContain("<artifactId>log-consumer</artifactId>");
+		assertThat(new File(catalogHome, "source/time-source/time-source-kafka/pom.xml")).exists();
+	}
+
+	@Test
+	public void testRemovedCatalogAppsArePruned() throws Exception {
+
+		SpringCloudStreamAppGeneratorMojo.GeneratedApp timeSource = new SpringCloudStreamAppGeneratorMojo.GeneratedApp();
+		timeSource.setName("time");
+		timeSource.setType(AppDefinition.AppType.source);
+		timeSource.setVersion("3.0.0.BUILD-SNAPSHOT");
+		timeSource.setConfigClass("io.pivotal.java.function.time.supplier.TimeSupplierConfiguration.class");
+		setMojoProperty("generatedApps", Arrays.asList(timeSource));
+		File catalogFile = projectHome.newFile("catalog.properties");
+		Files.write(catalogFile.toPath(), Arrays.asList(
+				"counter-sink.name=counter",
+				"counter-sink.type=sink",
+				"counter-sink.version=3.0.0.BUILD-SNAPSHOT",
+				"counter-sink.config-class=io.pivotal.java.function.counter.consumer.CounterConsumerConfiguration.class"));
+		setMojoProperty("catalogFile", catalogFile);
+		File catalogHome = projectHome.newFolder("catalog");
+		setMojoProperty("generatedProjectHome", catalogHome.getAbsolutePath());
+
+		this.springCloudStreamAppMojo.execute();
+		assertThat(new File(catalogHome, "sink/counter-sink/counter-sink-kafka/pom.xml")).exists();
+
+		// counter-sink is replaced by file-sink, the source group leaves the catalog
+		Files.write(catalogFile.toPath(), Arrays.asList(
+				"file-sink.name=file",
+				"file-sink.type=sink",
+				"file-sink.version=3.0.0.BUILD-SNAPSHOT",
+				"file-sink.config-class=io.pivotal.java.function.file.consumer.FileConsumerConfiguration.class"));
+		setMojoProperty("generatedApps", Arrays.asList());
+
+		this.springCloudStreamAppMojo.execute();
+
+		assertGeneratedPomXml(new File(catalogHome, "sink/log-sink"));
+		assertThat(new File(catalogHome, "sink/counter-sink")).doesNotExist();
+		assertThat(new File(catalogHome, "source")).doesNotExist();
+		assertThat(new String(Files.readAllBytes(new File(catalogHome, "sink/pom.xml").toPath())))
+				.contains("<module>log-sink</module>", "<module>file-sink</module>")
+				.doesNotContain("counter-sink");
+	}
+
+	@Test
+	public void testStartupOptimizedApp() throws Exception {
+
+		SpringCloudStreamAppGeneratorMojo.GeneratedApp generatedApp = new SpringCloudStreamAppGeneratorMojo.GeneratedApp();
+		generatedApp.setName("log");
+		generatedApp.setType(AppDefinition.AppType.sink);
+		generatedApp.setVersion("3.0.0.BUILD-SNAPSHOT");
+		generatedApp.setConfigClass("io.pivotal.java.function.log.consumer.LogConsumerConfiguration.class");
+		generatedApp.setStartupOptimized(true);
+		setMojoProperty("generatedApp", generatedApp);
+
+		this.springCloudStreamAppMojo.execute();
+
+		File appDir = new File(projectHome.getRoot(), "log-sink-kafka");
+		assertThat(new String(Files.readAllBytes(new File(appDir, "src/main/resources/application.properties").toPath())))
+				.contains("spring.main.lazy-initialization=true");
+
+		Model pomModel = getModel(projectHome.getRoot());
+		assertThat(pomModel.getDependencies().stream()
+				.filter(d -> d.getArtifactId().equals("spring-context-indexer")).count()).isEqualTo(1);
+		assertThat(pomModel.getBuild().getPlugins().stream()
+				.filter(p -> p.getArtifactId().equals("maven-antrun-plugin")).count()).isEqualTo(1);
+		assertThat(pomModel.getBuild().getPlugins().stream()
+				.filter(p -> p.getArtifactId().equals("spring-aot-maven-plugin")).count()).isEqualTo(0);
+		Plugin jibPlugin = pomModel.getBuild().getPlugins().stream()
+				.filter(p -> p.getArtifactId().equals("jib-maven-plugin")).findFirst().get();
+		assertThat(jibPlugin.getConfiguration().toString())
+				.contains("<containerizingMode>packaged</containerizingMode>",
+						"<jvmFlag>-XX:SharedArchiveFile=/app/cds/app.jsa</jvmFlag>",
+						"<from>${project.build.directory}/cds/archive</from>",
+						"<image>${container.base-image}</image>")
+				.doesNotContain("<entrypoint>");
+		assertThat(pomModel.getProperties().getProperty("container.base-image")).isEqualTo("eclipse-temurin:21-jre");
+		Plugin antrunPlugin = pomModel.getBuild().getPlugins().stream()
+				.filter(p -> p.getArtifactId().equals("maven-antrun-plugin")).findFirst().get();
+		assertThat(antrunPlugin.getExecutions().get(0).getConfiguration().toString())
+				.contains("<exec executable=\"${cds.docker}\"", "<arg value=\"--entrypoint=java\"",
+						"<arg value=\"${container.base-image}\"", "<arg value=\"-XX:ArchiveClassesAtExit=/cds/app.jsa\"");
+		assertThat(pomModel.getBuild().getPlugins().stream()
+				.filter(p -> p.getArtifactId().equals("maven-dependency-plugin")).count()).isEqualTo(1);
+		assertThat(new String(Files.readAllBytes(new File(appDir, "src/main/java/org/springframework/cloud/stream/app/"
+				+ "log/sink/kafka/LogSinkKafkaApplication.java").toPath())))
+				.contains("new TrainingLifecycleProcessor()");
+	}
+
+	@Test
+	public void testSpringAotBootVersion() throws Exception {
+
+		SpringCloudStreamAppGeneratorMojo.GeneratedApp generatedApp = new SpringCloudStreamAppGeneratorMojo.GeneratedApp();
+		generatedApp.setName("log");
+		generatedApp.setType(AppDefinition.AppType.sink);
+		generatedApp.setVersion("3.0.0.BUILD-SNAPSHOT");
+		generatedApp.setConfigClass("io.pivotal.java.function.log.consumer.LogConsumerConfiguration.class");
+		generatedApp.setSpringAot(true);
+		setMojoProperty("generatedApp", generatedApp);
+		setMojoProperty("springNativeVersion", "0.9.2");
+
+		assertThatThrownBy(() -> this.springCloudStreamAppMojo.execute())
+				.isInstanceOf(MojoFailureException.class)
+				.hasMessage("The springAot of the log sink requires Spring Boot 2.4 with Spring Native 0.9.2, "
+						+ "bootVersion is 2.3.0.M1");
+
+		setMojoProperty("springNativeVersion", "0.8.5");
+		setMojoProperty("bootVersion", "2.4.5");
+		assertThatThrownBy(() -> this.springCloudStreamAppMojo.execute())
+				.isInstanceOf(MojoFailureException.class)
+				.hasMessageContaining("requires a Spring Native version among [0.9, 0.10, 0.11, 0.12]");
+
+		setMojoProperty("springNativeVersion", "0.9.2");
+		this.springCloudStreamAppMojo.execute();
+
+		assertThat(getModel(projectHome.getRoot()).getBuild().getPlugins().stream()
+				.filter(p -> p.getArtifactId().equals("spring-aot-maven-plugin")).count()).isEqualTo(1);
+	}
+
+	@Test
+	public void testContainerBaseImage() throws Exception {
+
+		this.springCloudStreamAppMojo.execute();
+
+		assertThat(getModel(projectHome.getRoot()).getProperties().getProperty("container.base-image"))
+				.isEqualTo("springcloud/openjdk");
+
+		SpringCloudStreamAppGeneratorMojo.ContainerImage containerImage = new SpringCloudStreamAppGeneratorMojo.ContainerImage();
+		containerImage.setBaseImage("example/jre:17");
+		setMojoProperty("containerImage", containerImage);
+		this.springCloudStreamAppMojo.execute();
+
+		assertThat(getModel(projectHome.getRoot()).getProperties().getProperty("container.base-image"))
+				.isEqualTo("example/jre:17");
+	}
+
+	@Test
+	public void testContainerJvmProfile() throws Exception {
+
+		SpringCloudStreamAppGeneratorMojo.ContainerImage containerImage = new SpringCloudStreamAppGeneratorMojo.ContainerImage();
+		containerImage.setJvmProfile("small-footprint");
+		containerImage.setJvmFlags(Arrays.asList("-Dfile.encoding=UTF-8"));
+		setMojoProperty("containerImage", containerImage);
+
+		this.springCloudStreamAppMojo.execute();
+
+		Plugin jibPlugin = getModel(projectHome.getRoot()).getBuild().getPlugins().stream()
+				.filter(p -> p.getArtifactId().equals("jib-maven-plugin")).findFirst().get();
+		assertThat(jibPlugin.getConfiguration().toString())
+				.contains("<jvmFlag>-XX:+UseSerialGC</jvmFlag>", "<jvmFlag>-Dfile.encoding=UTF-8</jvmFlag>");
+	}
+
+	@Test
+	public void testReproducibleLayeredContainerImage() throws Exception {
+
+		SpringCloudStreamAppGeneratorMojo.ContainerImage containerImage = new SpringCloudStreamAppGeneratorMojo.ContainerImage();
+		containerImage.setSplitBinderLayer(true);
+		setMojoProperty("containerImage", containerImage);
+
+		assertThatThrownBy(() -> this.springCloudStreamAppMojo.execute())
+				.isInstanceOf(MojoFailureException.class)
+				.hasMessageContaining("requires Jib 3.1 or later");
+
+		containerImage.setJibVersion("3.0");
+		assertThatThrownBy(() -> this.springCloudStreamAppMojo.execute())
+				.isInstanceOf(MojoFailureException.class)
+				.hasMessageContaining("requires Jib 3.1 or later");
+
+		containerImage.setJibVersion("3.1.0-rc1");
+		assertThatThrownBy(() -> this.springCloudStreamAppMojo.execute())
+				.isInstanceOf(MojoFailureException.class)
+				.hasMessageContaining("requires Jib 3.1 or later");
+
+		containerImage.setJibVersion("10.0.0");
+		this.springCloudStreamAppMojo.execute();
+
+		containerImage.setJibVersion("3.1.4");
+		this.springCloudStreamAppMojo.execute();
+
+		Plugin jibPlugin = getModel(projectHome.getRoot()).getBuild().getPlugins().stream()
+				.filter(p -> p.getArtifactId().equals("jib-maven-plugin")).findFirst().get();
+		assertThat(jibPlugin.getVersion()).isEqualTo("3.1.4");
+		assertThat(jibPlugin.getDependencies()).hasSize(1);
+		assertThat(jibPlugin.getConfiguration().toString())
+				.contains("<creationTime>EPOCH</creationTime>",
+						"<glob>/app/libs/spring-cloud-stream-binder-*.jar</glob>", "<toLayer>binder</toLayer>");
+	}
+
+	@Test
+	public void testBenchmark() throws Exception {
+
+		SpringCloudStreamAppGeneratorMojo.GeneratedApp generatedApp = new SpringCloudStreamAppGeneratorMojo.GeneratedApp();
+		generatedApp.setName("log");
+		generatedApp.setType(AppDefinition.AppType.sink);
+		generatedApp.setVersion("3.0.0.BUILD-SNAPSHOT");
+		generatedApp.setConfigClass("io.pivotal.java.function.log.consumer.LogConsumerConfiguration.class");
+		generatedApp.setBenchmark(true);
+		setMojoProperty("generatedApp", generatedApp);
+
+		this.springCloudStreamAppMojo.execute();
+
+		File benchmark = new File(projectHome.getRoot(), "log-sink-kafka/src/test/java/org/springframework/cloud/stream/app/"
+				+ "log/sink/kafka/LogSinkKafkaApplicationBenchmark.java");
+		assertThat(new String(Files.readAllBytes(benchmark.toPath())))
+				.contains("public class LogSinkKafkaApplicationBenchmark", "this.input.send(",
+						"LATENCY = \"input.send call, the function handles the message before it returns\"",
+						"spring.cloud.stream.poller.max-messages-per-poll=${benchmark.messages-per-poll:1000}")
+				.doesNotContain("receive();", "round trip");
+
+		Model pomModel = getModel(projectHome.getRoot());
+		assertThat(pomModel.getProfiles().stream().filter(p -> p.getId().equals("benchmark")).count()).isEqualTo(1);
+		assertThat(pomModel.getDependencies().stream()
+				.filter(d -> "test-binder".equals(d.getClassifier())).count()).isEqualTo(1);
+	}
+
+	@Test
+	public void testMetrics() throws Exception {
+
+		setMojoProperty("metrics", true);
+
+		this.springCloudStreamAppMojo.execute();
+
+		assertThat(new String(Files.readAllBytes(
+				new File(projectHome.getRoot(), "log-sink-rabbit/src/main/resources/application.properties").toPath())))
+				.contains("management.endpoints.web.exposure.include=health,info,bindings,metrics,prometheus",
+						"management.metrics.tags.binder=rabbit",
+						"management.metrics.distribution.percentiles-histogram.spring.integration=true");
+		assertThat(getModel(projectHome.getRoot()).getDependencies().stream()
+				.filter(d -> d.getArtifactId().equals("micrometer-registry-prometheus")).count()).isEqualTo(1);
+	}
+
+	@Test
+	public void testReactiveFunctionFlavor() throws Exception {
+
+		SpringCloudStreamAppGeneratorMojo.GeneratedApp generatedApp = new SpringCloudStreamAppGeneratorMojo.GeneratedApp();
+		generatedApp.setName("log");
+		generatedApp.setType(AppDefinition.AppType.sink);
+		generatedApp.setVersion("3.0.0.BUILD-SNAPSHOT");
+		generatedApp.setConfigClass("io.pivotal.java.function.log.consumer.LogConsumerConfiguration.class");
+		generatedApp.setFunctionFlavor(AppDefinition.FunctionFlavor.reactive);
+		setMojoProperty("generatedApp", generatedApp);
+
+		this.springCloudStreamAppMojo.execute();
+
+		File appDir = new File(projectHome.getRoot(), "log-sink-kafka");
+		assertThat(new String(Files.readAllBytes(new File(appDir, "src/main/resources/application.properties").toPath())))
+				.contains("spring.cloud.stream.function.definition=reactiveConsumer",
+						"spring.cloud.stream.function.bindings.reactiveConsumer-in-0=input",
+						"app.reactive.function-definition=logConsumer");
+		assertThat(new String(Files.readAllBytes(new File(appDir, "src/main/java/org/springframework/cloud/stream/app/"
+				+ "log/sink/kafka/LogSinkKafkaApplication.java").toPath())))
+				.contains("public Consumer<Flux<Message<byte[]>>> reactiveConsumer(", ".onErrorResume(",
+						"reactiveSubscriptions.add(")
+				.doesNotContain("reactiveFunction(", "ListenerContainerCustomizer");
+
+		generatedApp.setType(AppDefinition.AppType.processor);
+		this.springCloudStreamAppMojo.execute();
+
+		File processorDir = new File(projectHome.getRoot(), "log-processor-rabbit");
+		assertThat(new String(Files.readAllBytes(new File(processorDir, "src/main/java/org/springframework/cloud/stream/"
+				+ "app/log/processor/rabbit/LogProcessorRabbitApplication.java").toPath())))
+				.contains("reactiveFunction(", ".onErrorResume(")
+				.doesNotContain("reactiveConsumer(");
+	}
+
+	@Test
+	public void testVirtualThreadsFunctionFlavor() throws Exception {
+
+		SpringCloudStreamAppGeneratorMojo.GeneratedApp generatedApp = new SpringCloudStreamAppGeneratorMojo.GeneratedApp();
+		generatedApp.setName("log");
+		generatedApp.setType(AppDefinition.AppType.sink);
+		generatedApp.setVersion("3.0.0.BUILD-SNAPSHOT");
+		generatedApp.setConfigClass("io.pivotal.java.function.log.consumer.LogConsumerConfiguration.class");
+		generatedApp.setFunctionFlavor(AppDefinition.FunctionFlavor.virtualThreads);
+		setMojoProperty("generatedApp", generatedApp);
+
+		assertThatThrownBy(() -> this.springCloudStreamAppMojo.execute())
+				.isInstanceOf(MojoFailureException.class)
+				.hasMessage("The virtualThreads function flavor of the log sink requires Spring Boot 3.2 or later, "
+						+ "bootVersion is 2.3.0.M1");
+
+		setMojoProperty("bootVersion", "3.2.0");
+		this.springCloudStreamAppMojo.execute();
+
+		assertThat(getModel(projectHome.getRoot()).getProperties().getProperty("container.base-image"))
+				.isEqualTo("eclipse-temurin:21-jre");
+
+		SpringCloudStreamAppGeneratorMojo.ContainerImage containerImage = new SpringCloudStreamAppGeneratorMojo.ContainerImage();
+		containerImage.setBaseImage("example/jre:17");
+		setMojoProperty("containerImage", containerImage);
+		assertThatThrownBy(() -> this.springCloudStreamAppMojo.execute())
+				.isInstanceOf(MojoFailureException.class)
+				.hasMessage("The virtualThreads function flavor of the log sink requires a Java 21 base image: set the "
+						+ "baseImageJavaVersion of the containerImage to the Java version of example/jre:17");
+
+		containerImage.setBaseImageJavaVersion(17);
+		assertThatThrownBy(() -> this.springCloudStreamAppMojo.execute())
+				.isInstanceOf(MojoFailureException.class)
+				.hasMessageContaining("requires a Java 21 base image");
+
+		containerImage.setBaseImage("example/jre:21");
+		containerImage.setBaseImageJavaVersion(21);
+		this.springCloudStreamAppMojo.execute();
+
+		String kafkaApp = new String(Files.readAllBytes(new File(projectHome.getRoot(), "log-sink-kafka/src/main/java/"
+				+ "org/springframework/cloud/stream/app/log/sink/kafka/LogSinkKafkaApplication.java").toPath()));
+		assertThat(kafkaApp).contains("org.springframework.kafka.listener.AbstractMessageListenerContainer")
+				.doesNotContain("org.springframework.amqp");
+		assertThat(getModel(projectHome.getRoot()).getProperties().getProperty("java.version")).isEqualTo("21");
+	}
+
 	private void assertGeneratedPomXml(File rootPath) throws Exception {
 
 		Model pomModel = getModel(rootPath);
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.stream.app.plugin.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GeneratedFilesTest {
+
+	@Rule
+	public TemporaryFolder output = new TemporaryFolder();
+
+	@Test
+	public void unchangedFilesAreNotWritten() throws IOException {
+		File pom = new File(this.output.getRoot(), "log-sink-kafka/pom.xml");
+		GeneratedFiles first = new GeneratedFiles(this.output.getRoot());
+		first.write("<project/>", pom);
+		first.prune();
+		pom.setLastModified(1000);
+
+		GeneratedFiles second = new GeneratedFiles(this.output.getRoot());
+		second.write("<project/>", pom);
+		second.prune();
+		assertThat(second.getWritten()).isEqualTo(0);
+		assertThat(second.getUnchanged()).isEqualTo(1);
+		assertThat(pom.lastModified()).isEqualTo(1000);
+
+		GeneratedFiles third = new GeneratedFiles(this.output.getRoot());
+		third.write("<project></project>", pom);
+		assertThat(third.getWritten()).isEqualTo(1);
+		assertThat(pom).hasContent("<project></project>");
+		assertThat(pom.getParentFile().list()).containsExactly("pom.xml");
+	}
+
+	@Test
+	public void staleFilesArePruned() throws IOException {
+		File kafka = new File(this.output.getRoot(), "log-sink-kafka/pom.xml");
+		File rabbit = new File(this.output.getRoot(), "log-sink-rabbit/pom.xml");
+		File buildOutput = new File(this.output.getRoot(), "log-sink-kafka/target/log-sink-kafka.jar");
+		GeneratedFiles first = new GeneratedFiles(this.output.getRoot());
+		first.write("<project/>", kafka);
+		first.write("<project/>", rabbit);
+		first.prune();
+		buildOutput.getParentFile().mkdirs();
+		buildOutput.createNewFile();
+
+		GeneratedFiles second = new GeneratedFiles(this.output.getRoot());
+		second.write("<project/>", kafka);
+		assertThat(second.prune()).isEqualTo(1);
+		assertThat(kafka).exists();
+		assertThat(rabbit.getParentFile()).doesNotExist();
+		assertThat(buildOutput).exists();
+	}
+
+	@Test
+	public void copiedDirectoriesAreSynchronized() throws IOException {
+		File resources = this.output.newFolder("resources");
+		File data = new File(resources, "data/lookup.csv");
+		data.getParentFile().mkdirs();
+		Files.write(data.toPath(), "a,b".getBytes(StandardCharsets.UTF_8));
+		File apps = this.output.newFolder("apps");
+		File copy = new File(apps, "log-sink-kafka/src/main/resources/data/lookup.csv");
+
+		GeneratedFiles first = new GeneratedFiles(apps);
+		first.copyDirectory(resources, copy.getParentFile().getParentFile());
+		assertThat(first.getWritten()).isEqualTo(1);
+		assertThat(copy).hasContent("a,b");
+		assertThat(copy.lastModified()).isEqualTo(data.lastModified());
+
+		GeneratedFiles second = new GeneratedFiles(apps);
+		second.copyDirectory(resources, copy.getParentFile().getParentFile());
+		assertThat(second.getUnchanged()).isEqualTo(1);
+		assertThat(second.getWritten()).isEqualTo(0);
+	}
+
+	@Test
+	public void linkedFilesAreReplacedNotWrittenThrough() throws IOException {
+		File resources = this.output.newFolder("resources");
+		File shared = new File(resources, "application.properties");
+		Files.write(shared.toPath(), "server.port=8080".getBytes(StandardCharsets.UTF_8));
+		File apps = this.output.newFolder("apps");
+		File link = new File(apps, "log-sink-kafka/src/main/resources/application.properties");
+
+		GeneratedFiles first = new GeneratedFiles(apps);
+		first.linkDirectory(resources, link.getParentFile());
+		assertThat(link).hasContent("server.port=8080");
+
+		GeneratedFiles second = new GeneratedFiles(apps);
+		second.linkDirectory(resources, link.getParentFile());
+		assertThat(second.getWritten()).isEqualTo(0);
+
+		second.write("server.port=9090", link);
+		assertThat(link).hasContent("server.port=9090");
+		assertThat(shared).hasContent("server.port=8080");
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.stream.app.plugin.generator;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JvmProfileTest {
+
+	@Test
+	public void profileByName() {
+		assertThat(JvmProfile.of("low-latency")).isEqualTo(JvmProfile.LOW_LATENCY);
+		assertThat(JvmProfile.of("THROUGHPUT")).isEqualTo(JvmProfile.THROUGHPUT);
+		assertThat(JvmProfile.of("small-footprint").getJvmFlags())
+				.contains("-XX:+ExitOnOutOfMemoryError", "-XX:MaxRAMPercentage=50.0", "-XX:+UseSerialGC");
+	}
+
+	@Test
+	public void unknownProfile() {
+		assertThatThrownBy(() -> JvmProfile.of("fast"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("low-latency, throughput, small-footprint");
+	}
+}
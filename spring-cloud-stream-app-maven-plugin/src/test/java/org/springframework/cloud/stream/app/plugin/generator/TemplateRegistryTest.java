@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.stream.app.plugin.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import com.samskivert.mustache.Template;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TemplateRegistryTest {
+
+	@Rule
+	public TemporaryFolder templates = new TemporaryFolder();
+
+	@Test
+	public void compilesOnce() throws IOException {
+		Template template = TemplateRegistry.getDefault().getTemplate("template/app.properties");
+
+		assertThat(TemplateRegistry.getDefault().getTemplate("template/app.properties")).isSameAs(template);
+		assertThat(TemplateRegistry.withOverrides(null)).isSameAs(TemplateRegistry.getDefault());
+	}
+
+	@Test
+	public void overrides() throws IOException {
+		File override = this.templates.newFile("README.adoc");
+		Files.write(override.toPath(), "= {{name}}".getBytes(StandardCharsets.UTF_8));
+		TemplateRegistry registry = TemplateRegistry.withOverrides(this.templates.getRoot());
+
+		Template template = registry.getTemplate("template/README.adoc");
+		assertThat(template.execute(Collections.singletonMap("name", "log"))).isEqualTo("= log");
+		assertThat(registry.getTemplate("template/README.adoc")).isSameAs(template);
+		assertThat(registry.getTemplate("template/app.properties")).isNotNull();
+		assertThat(TemplateRegistry.withOverrides(this.templates.getRoot())).isSameAs(registry);
+
+		Files.write(override.toPath(), "== {{name}}".getBytes(StandardCharsets.UTF_8));
+		override.setLastModified(override.lastModified() + 1000);
+		assertThat(registry.getTemplate("template/README.adoc").execute(Collections.singletonMap("name", "log")))
+				.isEqualTo("== log");
+	}
+}